@@ -0,0 +1,114 @@
+package com.org.firstclub.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Stands in for replication when the replicas are local H2 databases (profile "read-replica").
+ * Every firstclub.datasource.replica.local-copy-interval-ms the primary's rows are copied over each
+ * replica in one transaction, so replica reads lag the primary by up to one interval, like an
+ * asynchronous replica, and never see a half-copied table. The schema is copied on the first run.
+ * Real replicas are fed by the database; leave the interval unset there.
+ */
+public class LocalReplicaFeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalReplicaFeeder.class);
+
+    private final JdbcTemplate primary;
+    private final List<String> replicaUrls;
+    private final String username;
+    private final String password;
+
+    public LocalReplicaFeeder(DataSource primary, List<String> replicaUrls, String username, String password) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicaUrls = replicaUrls;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Scheduled(fixedDelayString = "${firstclub.datasource.replica.local-copy-interval-ms}")
+    public synchronized void copy() {
+        for (String url : replicaUrls) {
+            try {
+                copyTo(url.trim());
+            } catch (SQLException | DataAccessException e) {
+                logger.warn("Copying the primary to replica {} failed, retrying next interval: {}", url, e.getMessage());
+            }
+        }
+    }
+
+    private void copyTo(String url) throws SQLException {
+        List<String> tables = primary.queryForList("select table_name from information_schema.tables"
+                + " where table_schema = 'PUBLIC' and table_type = 'BASE TABLE'", String.class);
+
+        try (Connection replica = DriverManager.getConnection(url, username, password);
+             Statement statement = replica.createStatement()) {
+            if (!hasTables(replica)) {
+                for (String sql : primary.queryForList("SCRIPT NODATA", String.class)) {
+                    statement.execute(sql);
+                }
+                // Tables are refilled in any order inside one transaction
+                statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+                logger.info("Copied the primary's schema to replica {}", url);
+            }
+
+            replica.setAutoCommit(false);
+            try {
+                for (String table : tables) {
+                    statement.executeUpdate("delete from \"" + table + "\"");
+                    copyRows(table, replica);
+                }
+                replica.commit();
+            } catch (SQLException | DataAccessException e) {
+                replica.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void copyRows(String table, Connection replica) {
+        primary.query("select * from \"" + table + "\"", (ResultSet rows) -> {
+            ResultSetMetaData meta = rows.getMetaData();
+            int columns = meta.getColumnCount();
+            StringBuilder insert = new StringBuilder("insert into \"").append(table).append("\" values (?");
+            insert.append(",?".repeat(columns - 1)).append(')');
+
+            try (PreparedStatement statement = replica.prepareStatement(insert.toString())) {
+                int batched = 0;
+                while (rows.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        statement.setObject(i, rows.getObject(i));
+                    }
+                    statement.addBatch();
+                    if (++batched % 1000 == 0) {
+                        statement.executeBatch();
+                    }
+                }
+                statement.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    private static boolean hasTables(Connection replica) throws SQLException {
+        try (Statement statement = replica.createStatement();
+             ResultSet rows = statement.executeQuery("select count(*) from information_schema.tables"
+                     + " where table_schema = 'PUBLIC' and table_type = 'BASE TABLE'")) {
+            rows.next();
+            return rows.getLong(1) > 0;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.org.firstclub.config;
+
+import com.org.firstclub.service.ActiveSubscriptionCache;
+import com.org.firstclub.service.OrderEventAggregator;
+import com.org.firstclub.service.PromotionFeed;
+import com.org.firstclub.service.SubscribeRequestCoalescer;
+import com.org.firstclub.service.SubscriptionMutationGuard;
+import com.org.firstclub.service.journal.SubscriptionJournal;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the internal counters of the in-memory components as Micrometer meters, scraped from
+ * /actuator/prometheus. The components keep their own lock-free counters; meters read them on scrape,
+ * so nothing here adds work to the request path.
+ *
+ * HTTP request timers, Hikari pool and Hibernate statistics meters come from Spring Boot auto-configuration;
+ * service method timers from @Timed.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder subscriptionMutationMetrics(SubscriptionMutationGuard guard) {
+        return registry -> {
+            FunctionCounter.builder("firstclub.subscription.mutations", guard, SubscriptionMutationGuard::executions)
+                    .description("Subscription change transactions started, including retries")
+                    .register(registry);
+            FunctionCounter.builder("firstclub.subscription.optimistic.lock.failures", guard, SubscriptionMutationGuard::conflicts)
+                    .description("Subscription changes that failed on an optimistic-lock conflict")
+                    .register(registry);
+            FunctionCounter.builder("firstclub.subscription.mutation.retries", guard, SubscriptionMutationGuard::retries)
+                    .register(registry);
+            FunctionCounter.builder("firstclub.subscription.mutation.exhausted", guard, SubscriptionMutationGuard::exhausted)
+                    .description("Subscription changes rejected with 409 after all retries conflicted")
+                    .register(registry);
+            FunctionCounter.builder("firstclub.subscription.lock.wait", guard,
+                            g -> g.lockWaitNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                    .baseUnit("seconds")
+                    .description("Total time spent waiting for per-user subscription locks")
+                    .register(registry);
+            Gauge.builder("firstclub.subscription.lock.wait.max", guard,
+                            g -> g.maxLockWaitNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                    .baseUnit("seconds")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder subscribeCoalescingMetrics(SubscribeRequestCoalescer coalescer) {
+        return registry -> {
+            FunctionCounter.builder("firstclub.subscribe.requests", coalescer, SubscribeRequestCoalescer::executions)
+                    .tag("result", "executed")
+                    .register(registry);
+            FunctionCounter.builder("firstclub.subscribe.requests", coalescer, SubscribeRequestCoalescer::coalesced)
+                    .tag("result", "coalesced")
+                    .register(registry);
+            FunctionCounter.builder("firstclub.subscribe.requests", coalescer, SubscribeRequestCoalescer::replayed)
+                    .tag("result", "replayed")
+                    .description("Subscribe requests executed, joined to an identical running one, or replayed for an Idempotency-Key")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder statusCacheMetrics(ActiveSubscriptionCache cache) {
+        return registry -> {
+            FunctionCounter.builder("firstclub.status.cache.requests", cache, c -> c.stats().hitCount())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("firstclub.status.cache.requests", cache, c -> c.stats().missCount())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("firstclub.status.cache.evictions", cache, c -> c.stats().evictionCount())
+                    .register(registry);
+            FunctionCounter.builder("firstclub.status.cache.load", cache,
+                            c -> c.stats().totalLoadTime() / (double) TimeUnit.SECONDS.toNanos(1))
+                    .baseUnit("seconds")
+                    .description("Time spent loading subscriptions on cache misses")
+                    .register(registry);
+            Gauge.builder("firstclub.status.cache.size", cache, ActiveSubscriptionCache::size)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder orderIngestMetrics(OrderEventAggregator aggregator) {
+        return registry -> {
+            FunctionCounter.builder("firstclub.order.events.accepted", aggregator, OrderEventAggregator::acceptedEvents)
+                    .register(registry);
+            FunctionCounter.builder("firstclub.order.deltas", aggregator, OrderEventAggregator::appliedDeltas)
+                    .tag("result", "applied")
+                    .register(registry);
+            FunctionCounter.builder("firstclub.order.deltas", aggregator, OrderEventAggregator::droppedDeltas)
+                    .tag("result", "dropped")
+                    .description("Aggregated order deltas, applied to a user or dropped because the user does not exist")
+                    .register(registry);
+            FunctionCounter.builder("firstclub.order.flush.failures", aggregator, OrderEventAggregator::failedFlushes)
+                    .register(registry);
+            Gauge.builder("firstclub.order.pending.users", aggregator, OrderEventAggregator::pendingUsers)
+                    .description("Users with order deltas waiting for the next flush")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder promotionFeedMetrics(PromotionFeed feed) {
+        return registry -> FunctionCounter.builder("firstclub.tier.promotions", feed, PromotionFeed::lastSequence)
+                .description("Tier promotion events published")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder subscriptionJournalMetrics(SubscriptionJournal journal) {
+        return registry -> {
+            FunctionCounter.builder("firstclub.journal.events", journal, SubscriptionJournal::appended)
+                    .description("Subscription change events appended to the journal")
+                    .register(registry);
+            FunctionCounter.builder("firstclub.journal.flushes", journal, SubscriptionJournal::flushes)
+                    .description("Journal group commits forced to disk")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.org.firstclub.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to replica databases and everything else to the primary.
+ * Enabled with firstclub.datasource.replica.enabled=true (profile "read-replica").
+ *
+ * The primary pool is configured from spring.datasource.* as usual; each URL in
+ * firstclub.datasource.replica.urls gets its own read-only Hikari pool. Reads that must see a
+ * recent write are pinned to the primary by ReadYourWritesGuard.
+ *
+ * Turn off spring.jpa.open-in-view with routing: an entity manager held open for the whole request
+ * keeps its first connection, so a write after a read in the same request would reach the replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "firstclub.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                        DataSourceProperties properties,
+                                                        ObjectProvider<MeterRegistry> meterRegistry,
+                                                        @Value("${firstclub.datasource.replica.urls}") List<String> replicaUrls,
+                                                        @Value("${firstclub.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                                        @Value("${firstclub.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                                        @Value("${firstclub.datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+        List<DataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (String url : replicaUrls) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            // Not beans, so Spring Boot does not bind their pool metrics
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(replica);
+        }
+
+        logger.info("Read-replica routing enabled: read-only transactions use {} replica pool(s)", replicas.size());
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    // Local H2 replicas only; see LocalReplicaFeeder
+    @Bean
+    @ConditionalOnProperty(name = "firstclub.datasource.replica.local-copy-interval-ms")
+    public LocalReplicaFeeder localReplicaFeeder(HikariDataSource primaryDataSource,
+                                                 @Value("${firstclub.datasource.replica.urls}") List<String> replicaUrls,
+                                                 @Value("${firstclub.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                                 @Value("${firstclub.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        return new LocalReplicaFeeder(primaryDataSource, replicaUrls, username, password);
+    }
+
+    // What JPA and JdbcTemplate use: defers picking a pool until the first statement of a transaction
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,36 @@
+package com.org.firstclub.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that sends reads to the primary database even inside read-only transactions,
+ * for reads that must see a write the replicas may not have applied yet.
+ * Only has an effect when read-replica routing is enabled (see ReadReplicaConfig), and only for the
+ * first statement of a transaction: the connection is chosen once and kept until the transaction ends.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    /**
+     * Run the action with connections taken from the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (isPrimaryForced()) {
+            return action.get();
+        }
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            PRIMARY_FORCED.remove();
+        }
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get() != null;
+    }
+}
@@ -1,22 +1,44 @@
 package com.org.firstclub.controller;
 
+import com.org.firstclub.exception.InvalidRequestException;
+import com.org.firstclub.repository.dto.BatchSubscriptionRequest;
+import com.org.firstclub.repository.dto.BatchSubscriptionResult;
+import com.org.firstclub.repository.dto.BulkEligibilityRequest;
+import com.org.firstclub.repository.dto.BulkEligibilityResult;
+import com.org.firstclub.repository.dto.CursorPage;
+import com.org.firstclub.repository.dto.OrderEventBatch;
 import com.org.firstclub.repository.dto.SubscriptionRequest;
+import com.org.firstclub.repository.dto.SubscriptionResponse;
+import com.org.firstclub.repository.dto.TierPromotionEvent;
 import com.org.firstclub.repository.dto.UserRegistrationRequest;
-import com.org.firstclub.repository.entities.PlanPricing;
 import com.org.firstclub.repository.entities.Subscription;
-import com.org.firstclub.repository.entities.Tier;
 import com.org.firstclub.repository.entities.User;
-import com.org.firstclub.service.PlanService;
+import com.org.firstclub.service.BulkEligibilityService;
+import com.org.firstclub.service.CatalogResponseCache;
+import com.org.firstclub.service.CatalogResponseCache.Body;
+import com.org.firstclub.service.CatalogResponseCache.RenderedCatalog;
+import com.org.firstclub.service.OrderEventAggregator;
+import com.org.firstclub.service.PromotionFeed;
 import com.org.firstclub.service.SubscriptionService;
 import com.org.firstclub.service.TierService;
 import com.org.firstclub.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * REST Controller for membership-related operations.
@@ -27,20 +49,39 @@ import java.util.List;
 @RequestMapping("/api/membership")
 public class MembershipController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final SubscriptionService subscriptionService;
     private final UserService userService;
     private final TierService tierService;
-    private final PlanService planService;
+    private final CatalogResponseCache catalogResponseCache;
+    private final BulkEligibilityService bulkEligibilityService;
+    private final OrderEventAggregator orderEventAggregator;
+    private final PromotionFeed promotionFeed;
+    private final ObjectMapper objectMapper;
+    private final CacheControl catalogCacheControl;
 
     @Autowired
     public MembershipController(SubscriptionService subscriptionService,
                                 UserService userService,
                                 TierService tierService,
-                                PlanService planService) {
+                                CatalogResponseCache catalogResponseCache,
+                                BulkEligibilityService bulkEligibilityService,
+                                OrderEventAggregator orderEventAggregator,
+                                PromotionFeed promotionFeed,
+                                ObjectMapper objectMapper,
+                                @Value("${firstclub.catalog.cache-max-age-seconds:300}") long catalogMaxAgeSeconds) {
         this.subscriptionService = subscriptionService;
         this.userService = userService;
         this.tierService = tierService;
-        this.planService = planService;
+        this.catalogResponseCache = catalogResponseCache;
+        this.bulkEligibilityService = bulkEligibilityService;
+        this.orderEventAggregator = orderEventAggregator;
+        this.promotionFeed = promotionFeed;
+        this.objectMapper = objectMapper;
+        // Clients may reuse a copy for max-age, then must revalidate it (usually a 304)
+        this.catalogCacheControl = CacheControl.maxAge(Duration.ofSeconds(catalogMaxAgeSeconds)).mustRevalidate();
     }
 
     /**
@@ -56,13 +97,29 @@ public class MembershipController {
     }
 
     /**
-     * Get all users (for testing/admin purposes).
+     * Get users one page at a time (for testing/admin purposes).
+     * Pass the returned nextCursor as afterId to fetch the following page.
+     *
+     * @param afterId Only return users with an ID greater than this cursor
+     * @param limit Page size, capped at UserService.MAX_PAGE_SIZE
+     * @return One page of users ordered by ID
+     */
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CursorPage<User>> getAllUsers(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(userService.getUsers(afterId, limit));
+    }
+
+    /**
+     * Stream all users as newline-delimited JSON (Accept: application/x-ndjson).
+     * Rows are written to the response as they are read from the database.
      *
-     * @return List of all users
+     * @return Streaming body with one user per line
      */
-    @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return ndjson(userService::streamUsers);
     }
 
     /**
@@ -78,22 +135,32 @@ public class MembershipController {
 
     /**
      * Get all available membership plans (tier + duration + price combinations).
+     * The body is pre-rendered JSON, gzip-encoded when the client accepts it. Conditional: the ETag
+     * is the catalog version, and a request whose If-None-Match still matches gets 304 Not Modified
+     * with no body.
      *
-     * @return List of all plan pricing options
+     * @param acceptEncoding The client's Accept-Encoding header
+     * @return JSON list of all plan pricing options
      */
-    @GetMapping("/plans")
-    public ResponseEntity<List<PlanPricing>> getAvailablePlans() {
-        return ResponseEntity.ok(planService.getAllPlans());
+    @GetMapping(value = "/plans", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAvailablePlans(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        RenderedCatalog catalog = catalogResponseCache.get();
+        return catalogResponse(catalog, catalog.plans(), acceptEncoding);
     }
 
     /**
      * Get all available tiers with their benefits.
+     * Pre-rendered and conditional like GET /plans.
      *
-     * @return List of all tiers
+     * @param acceptEncoding The client's Accept-Encoding header
+     * @return JSON list of all tiers
      */
-    @GetMapping("/tiers")
-    public ResponseEntity<List<Tier>> getAllTiers() {
-        return ResponseEntity.ok(tierService.getAllTiers());
+    @GetMapping(value = "/tiers", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllTiers(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        RenderedCatalog catalog = catalogResponseCache.get();
+        return catalogResponse(catalog, catalog.tiers(), acceptEncoding);
     }
 
     /**
@@ -109,31 +176,102 @@ public class MembershipController {
         return ResponseEntity.ok(eligible);
     }
 
+    /**
+     * Evaluate which tiers each of many users can buy, for marketing and CRM jobs.
+     * Results are streamed as newline-delimited JSON, one line per existing user, ordered by user ID.
+     *
+     * @param request Explicit user IDs or an inclusive user ID range
+     * @return Streaming body with one eligibility result per line
+     */
+    @PostMapping(value = "/eligibility/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> checkEligibilityBulk(
+            @Valid @RequestBody BulkEligibilityRequest request) {
+        return ndjson((Consumer<BulkEligibilityResult> sink) -> bulkEligibilityService.evaluate(request, sink));
+    }
+
     /**
      * Subscribe a user to a plan.
      * Handles new subscriptions, upgrades, and downgrades automatically.
      *
+     * Identical requests arriving while one is running share its result. Retries that send the same
+     * Idempotency-Key header within the idempotency window get the first successful result back.
+     *
      * @param request Subscription request with userId and planPricingId
+     * @param fields Optional comma-separated subset of SubscriptionResponse fields
+     * @param idempotencyKey Optional client-chosen key shared by all retries of one request
      * @return The created or updated subscription
      */
     @PostMapping("/subscribe")
-    public ResponseEntity<Subscription> subscribe(@Valid @RequestBody SubscriptionRequest request) {
+    public ResponseEntity<Object> subscribe(@Valid @RequestBody SubscriptionRequest request,
+                                            @RequestParam(required = false) String fields,
+                                            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Set<String> selected = SubscriptionResponse.parseFields(fields);
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new InvalidRequestException(IDEMPOTENCY_KEY_HEADER + " must be 1 to "
+                    + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
         Subscription subscription = subscriptionService.subscribe(
                 request.getUserId(),
-                request.getPlanPricingId()
+                request.getPlanPricingId(),
+                idempotencyKey
         );
-        return ResponseEntity.status(HttpStatus.CREATED).body(subscription);
+        return ResponseEntity.status(HttpStatus.CREATED).body(subscriptionBody(subscription, selected));
+    }
+
+    /**
+     * Subscribe many users in one request (partner onboarding, campaigns).
+     * Each item is processed like POST /subscribe, but rejections and conflicts with concurrent
+     * changes are reported per item instead of failing the whole batch.
+     *
+     * @param request Batch of subscription requests
+     * @return One result per item, in request order
+     */
+    @PostMapping("/subscribe/batch")
+    public ResponseEntity<List<BatchSubscriptionResult>> subscribeBatch(
+            @Valid @RequestBody BatchSubscriptionRequest request) {
+        return ResponseEntity.ok(subscriptionService.subscribeBatch(request.getSubscriptions()));
+    }
+
+    /**
+     * Ingest order events. Events are aggregated per user in memory and applied to the user's
+     * totalOrders/totalSpent on the next periodic flush. Accepted events are not persisted until then:
+     * a crash loses up to one flush interval (firstclub.order-ingest.flush-interval-ms) of orders.
+     *
+     * @param batch Order events (user ID and order amount)
+     * @return HTTP 202 once the events are accepted
+     */
+    @PostMapping("/orders")
+    public ResponseEntity<Void> ingestOrders(@Valid @RequestBody OrderEventBatch batch) {
+        orderEventAggregator.recordAll(batch.getEvents());
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Read tier promotions ("user newly eligible for tier X") detected from order metrics.
+     *
+     * @param afterSequence Return events after this sequence number (0 for the oldest retained)
+     * @param limit Page size, capped at PromotionFeed.MAX_PAGE_SIZE
+     * @return Events in sequence order; nextCursor is the afterSequence for the next poll
+     */
+    @GetMapping("/promotions")
+    public ResponseEntity<CursorPage<TierPromotionEvent>> getPromotions(
+            @RequestParam(defaultValue = "0") long afterSequence,
+            @RequestParam(defaultValue = "" + PromotionFeed.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(promotionFeed.readPage(afterSequence, limit));
     }
 
     /**
      * Get the active subscription for a user.
      *
      * @param userId The user ID
+     * @param fields Optional comma-separated subset of SubscriptionResponse fields, e.g. tierName,expiryDate
      * @return The active subscription with tier and expiry information
      */
     @GetMapping("/status/{userId}")
-    public ResponseEntity<Subscription> getSubscriptionStatus(@PathVariable Long userId) {
-        return ResponseEntity.ok(subscriptionService.getActiveSubscription(userId));
+    public ResponseEntity<Object> getSubscriptionStatus(@PathVariable Long userId,
+                                                        @RequestParam(required = false) String fields) {
+        Set<String> selected = SubscriptionResponse.parseFields(fields);
+        return ResponseEntity.ok(subscriptionBody(subscriptionService.getActiveSubscription(userId), selected));
     }
 
     /**
@@ -147,4 +285,74 @@ public class MembershipController {
         subscriptionService.cancelSubscription(userId);
         return ResponseEntity.noContent().build();
     }
+
+    // Spring answers a matching If-None-Match / If-Modified-Since with 304 before the body is written.
+    // The gzip body is a different representation, so it gets its own strong ETag.
+    private ResponseEntity<byte[]> catalogResponse(RenderedCatalog catalog, Body body, String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        byte[] bytes = gzip ? body.gzip() : body.identity();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(gzip ? catalog.version() + "-gzip" : catalog.version())
+                .lastModified(catalog.lastModified())
+                .cacheControl(catalogCacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(bytes.length);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(bytes);
+    }
+
+    // True if Accept-Encoding allows gzip: an explicit gzip/x-gzip entry decides, otherwise a * entry; q=0 refuses
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean accepted = parts.length < 2 || !isZeroQuality(parts[1]);
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                gzip = (gzip != null && gzip) || accepted;
+            } else if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : wildcard;
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+        String[] pair = parameter.split("=", 2);
+        if (pair.length != 2 || !pair[0].trim().equalsIgnoreCase("q")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(pair[1].trim()) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // The full response record, or only the selected fields
+    private static Object subscriptionBody(Subscription subscription, Set<String> fields) {
+        SubscriptionResponse response = SubscriptionResponse.from(subscription);
+        return fields.isEmpty() ? response : response.select(fields);
+    }
+
+    // Writes each value the producer emits as one JSON line, straight to the response
+    private <T> ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<T>> producer) {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                producer.accept(writer::write);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
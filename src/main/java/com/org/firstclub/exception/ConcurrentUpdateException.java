@@ -0,0 +1,16 @@
+package com.org.firstclub.exception;
+
+/**
+ * Exception thrown when a change keeps conflicting with concurrent updates to the same record
+ * and could not be applied within the allowed number of attempts.
+ */
+public class ConcurrentUpdateException extends RuntimeException {
+
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+
+    public ConcurrentUpdateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.org.firstclub.exception;
+
+/**
+ * Exception thrown when an Idempotency-Key is sent again with a different request than the one
+ * it was first used for.
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    public IdempotencyKeyReuseException(String idempotencyKey) {
+        super("Idempotency-Key " + idempotencyKey + " was already used for a different request");
+    }
+}
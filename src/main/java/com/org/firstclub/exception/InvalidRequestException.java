@@ -0,0 +1,11 @@
+package com.org.firstclub.exception;
+
+/**
+ * Exception thrown when request parameters are malformed, e.g. an unknown field in a field selection.
+ */
+public class InvalidRequestException extends RuntimeException {
+    
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,12 @@ package com.org.firstclub.repository;
 
 import com.org.firstclub.repository.entities.PlanPricing;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface PlanPricingRepository extends JpaRepository<PlanPricing, Long> {
+    // Tier and duration joined in the same query rather than resolved one select per distinct reference
+    @Query("select p from PlanPricing p join fetch p.tier join fetch p.planDuration order by p.id")
+    List<PlanPricing> findAllWithTierAndDuration();
 }
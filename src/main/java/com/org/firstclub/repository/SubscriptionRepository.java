@@ -1,11 +1,53 @@
 package com.org.firstclub.repository;
 
+import com.org.firstclub.repository.dto.ExpiringSubscription;
 import com.org.firstclub.repository.entities.Subscription;
 import com.org.firstclub.repository.enums.SubscriptionStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+    // Eager to-one associations are joined in the same query instead of one select each
+    @EntityGraph(type = EntityGraph.EntityGraphType.LOAD, attributePaths = {"user", "currentTier", "currentPlan"})
     Optional<Subscription> findByUserIdAndStatus(Long userId, SubscriptionStatus status);
+
+    // A user has at most one subscription row (unique user_id), whatever its status
+    @EntityGraph(type = EntityGraph.EntityGraphType.LOAD, attributePaths = {"user", "currentTier", "currentPlan"})
+    Optional<Subscription> findByUserId(Long userId);
+
+    // Same lookup with the tier's benefits fetched up front, for results that outlive the session
+    @EntityGraph(type = EntityGraph.EntityGraphType.LOAD,
+            attributePaths = {"user", "currentTier", "currentTier.benefits", "currentPlan"})
+    Optional<Subscription> findWithBenefitsByUserIdAndStatus(Long userId, SubscriptionStatus status);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.LOAD, attributePaths = {"user", "currentTier", "currentPlan"})
+    List<Subscription> findByUserIdIn(Collection<Long> userIds);
+
+    // Ordered like idx_subscription_status_expiry (status included), so the scan stops after one chunk
+    @Query("select s.id as id, s.user.id as userId, s.currentTier.id as tierId, s.currentPlan.id as planDurationId,"
+            + " s.startDate as startDate, s.expiryDate as expiryDate from Subscription s"
+            + " where s.status = com.org.firstclub.repository.enums.SubscriptionStatus.ACTIVE"
+            + " and s.expiryDate < :today order by s.status, s.expiryDate, s.id")
+    List<ExpiringSubscription> findExpiredActive(@Param("today") LocalDate today, Limit limit);
+
+    @Query("select s.id from Subscription s where s.id in :ids"
+            + " and s.status = com.org.firstclub.repository.enums.SubscriptionStatus.EXPIRED")
+    List<Long> findExpiredIdsIn(@Param("ids") Collection<Long> ids);
+
+    // Re-checks status and expiry so a row renewed since it was selected is left alone
+    @Modifying
+    @Query("update Subscription s set s.status = com.org.firstclub.repository.enums.SubscriptionStatus.EXPIRED,"
+            + " s.version = s.version + 1"
+            + " where s.id in :ids and s.status = com.org.firstclub.repository.enums.SubscriptionStatus.ACTIVE"
+            + " and s.expiryDate < :today")
+    int expireActive(@Param("ids") Collection<Long> ids, @Param("today") LocalDate today);
 }
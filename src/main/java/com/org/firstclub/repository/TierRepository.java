@@ -2,6 +2,12 @@ package com.org.firstclub.repository;
 
 import com.org.firstclub.repository.entities.Tier;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface TierRepository extends JpaRepository<Tier,Long> {
+    // All tiers with their benefits in one query, instead of one benefits select per tier
+    @Query("select t from Tier t left join fetch t.benefits order by t.id")
+    List<Tier> findAllWithBenefits();
 }
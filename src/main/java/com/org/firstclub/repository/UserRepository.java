@@ -1,7 +1,30 @@
 package com.org.firstclub.repository;
 
+import com.org.firstclub.repository.dto.UserMetrics;
 import com.org.firstclub.repository.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    // Keyset pagination: seek past the last seen id instead of using OFFSET
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Must be consumed inside a transaction and closed after use
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAllOrderById();
+
+    List<UserMetrics> findMetricsByIdInOrderByIdAsc(Collection<Long> ids);
+
+    // Keyset scan over an inclusive id range, for bulk eligibility
+    List<UserMetrics> findMetricsByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long afterId, Long toId, Limit limit);
 }
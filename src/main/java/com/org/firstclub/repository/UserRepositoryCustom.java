@@ -0,0 +1,20 @@
+package com.org.firstclub.repository;
+
+import com.org.firstclub.repository.dto.UserMetricsChange;
+import com.org.firstclub.repository.dto.UserMetricsDelta;
+
+import java.util.List;
+
+/**
+ * Hand-written JDBC operations on app_user that Spring Data cannot derive.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Atomically add each delta to the user's totalOrders/totalSpent, in JDBC batches within one transaction.
+     *
+     * @param deltas Per-user increments
+     * @return Metrics before and after the update for every user that exists; unknown users are omitted
+     */
+    List<UserMetricsChange> incrementMetrics(List<UserMetricsDelta> deltas);
+}
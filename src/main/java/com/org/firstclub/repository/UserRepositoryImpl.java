@@ -0,0 +1,77 @@
+package com.org.firstclub.repository;
+
+import com.org.firstclub.repository.dto.UserMetricsChange;
+import com.org.firstclub.repository.dto.UserMetricsDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spring Data fragment implementing {@link UserRepositoryCustom} with plain JDBC.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    static final int JDBC_BATCH_SIZE = 500;
+
+    private static final String INCREMENT_METRICS_SQL =
+            "UPDATE app_user SET total_orders = total_orders + ?, total_spent = total_spent + ? WHERE id = ?";
+
+    private static final String SELECT_METRICS_SQL =
+            "SELECT id, total_orders, total_spent FROM app_user WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public UserRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public List<UserMetricsChange> incrementMetrics(List<UserMetricsDelta> deltas) {
+        int[][] perBatch = jdbcTemplate.batchUpdate(INCREMENT_METRICS_SQL, deltas, JDBC_BATCH_SIZE, (ps, delta) -> {
+            ps.setLong(1, delta.orders());
+            ps.setBigDecimal(2, delta.spent());
+            ps.setLong(3, delta.userId());
+        });
+
+        Map<Long, UserMetricsDelta> applied = new LinkedHashMap<>();
+        int i = 0;
+        for (int[] batch : perBatch) {
+            for (int count : batch) {
+                if (count != 0) { // SUCCESS_NO_INFO (-2) is confirmed by the read-back below
+                    applied.put(deltas.get(i).userId(), deltas.get(i));
+                }
+                i++;
+            }
+        }
+        if (applied.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // The updated rows stay locked until commit, so reading them back here yields exactly
+        // our post-update totals, and subtracting the delta gives the pre-update ones
+        List<Long> ids = new ArrayList<>(applied.keySet());
+        List<UserMetricsChange> changes = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += JDBC_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + JDBC_BATCH_SIZE, ids.size()));
+            String sql = String.format(SELECT_METRICS_SQL, String.join(",", Collections.nCopies(chunk.size(), "?")));
+            jdbcTemplate.query(sql, rs -> {
+                UserMetricsDelta delta = applied.get(rs.getLong(1));
+                int totalOrders = rs.getInt(2); // 0 for NULL
+                BigDecimal totalSpent = rs.getBigDecimal(3) != null ? rs.getBigDecimal(3) : BigDecimal.ZERO;
+                changes.add(new UserMetricsChange(delta.userId(),
+                        totalOrders - (int) delta.orders(), totalSpent.subtract(delta.spent()),
+                        totalOrders, totalSpent));
+            }, chunk.toArray());
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,17 @@
+package com.org.firstclub.repository.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchSubscriptionRequest {
+
+    @NotEmpty(message = "Subscriptions cannot be empty")
+    @Size(max = 10000, message = "At most 10000 subscriptions per batch")
+    private List<@Valid @NotNull SubscriptionRequest> subscriptions;
+}
@@ -0,0 +1,27 @@
+package com.org.firstclub.repository.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single item in a batch subscribe request.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchSubscriptionResult {
+
+    public enum Outcome {
+        CREATED,
+        UPDATED,
+        REJECTED,
+        FAILED // conflicted with a concurrent change; safe to retry
+    }
+
+    private Long userId;
+    private Long planPricingId;
+    private Outcome outcome;
+    private Long subscriptionId; // null when rejected
+    private String message;      // rejection or failure reason, null otherwise
+}
@@ -0,0 +1,28 @@
+package com.org.firstclub.repository.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Selects the users to evaluate: either an explicit list of IDs or an inclusive ID range.
+ */
+@Data
+public class BulkEligibilityRequest {
+
+    @Size(max = 100000, message = "At most 100000 user IDs per request; use a range for more")
+    private List<Long> userIds;
+
+    private Long fromUserId;
+    private Long toUserId;
+
+    @AssertTrue(message = "Provide either userIds or both fromUserId and toUserId (fromUserId <= toUserId)")
+    public boolean isSelectionValid() {
+        boolean hasIds = userIds != null && !userIds.isEmpty();
+        boolean hasRange = fromUserId != null && toUserId != null && fromUserId <= toUserId;
+        boolean hasPartialRange = fromUserId != null || toUserId != null;
+        return hasIds ? !hasPartialRange : hasRange;
+    }
+}
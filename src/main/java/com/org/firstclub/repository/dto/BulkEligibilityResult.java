@@ -0,0 +1,21 @@
+package com.org.firstclub.repository.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Tiers one user can buy, as produced by the bulk eligibility endpoint.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkEligibilityResult {
+
+    private Long userId;
+    private Long highestTierId;        // null if no tier admits the user
+    private String highestTierName;
+    private List<Long> eligibleTierIds; // lowest tier first
+}
@@ -0,0 +1,22 @@
+package com.org.firstclub.repository.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of an active subscription past its expiry date, as selected by the expiry sweeper:
+ * enough to expire it and journal the change without loading the entity.
+ */
+public interface ExpiringSubscription {
+
+    Long getId();
+
+    Long getUserId();
+
+    Long getTierId();
+
+    Long getPlanDurationId();
+
+    LocalDate getStartDate();
+
+    LocalDate getExpiryDate();
+}
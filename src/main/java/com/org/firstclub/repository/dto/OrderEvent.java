@@ -0,0 +1,20 @@
+package com.org.firstclub.repository.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class OrderEvent {
+
+    @NotNull(message = "User ID cannot be null")
+    private Long userId;
+
+    @NotNull(message = "Amount cannot be null")
+    @DecimalMin(value = "0.00", message = "Amount cannot be negative")
+    @Digits(integer = 15, fraction = 2, message = "Amount must have at most 2 decimal places")
+    private BigDecimal amount;
+}
@@ -0,0 +1,17 @@
+package com.org.firstclub.repository.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class OrderEventBatch {
+
+    @NotEmpty(message = "Events cannot be empty")
+    @Size(max = 10000, message = "At most 10000 events per request")
+    private List<@Valid @NotNull OrderEvent> events;
+}
@@ -0,0 +1,89 @@
+package com.org.firstclub.repository.dto;
+
+import com.org.firstclub.exception.InvalidRequestException;
+import com.org.firstclub.repository.entities.Subscription;
+import com.org.firstclub.repository.enums.SubscriptionStatus;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Subscription as returned by the API: tier, plan and dates, without the user record,
+ * the full tier definition or the optimistic-lock version of the entity.
+ * Clients can ask for a subset of the fields with {@code ?fields=tierName,expiryDate}.
+ */
+public record SubscriptionResponse(Long id,
+                                   Long userId,
+                                   SubscriptionStatus status,
+                                   Long tierId,
+                                   String tierName,
+                                   String planName,
+                                   LocalDate startDate,
+                                   LocalDate expiryDate,
+                                   Map<String, String> benefits) {
+
+    public static final List<String> FIELDS = List.of(
+            "id", "userId", "status", "tierId", "tierName", "planName", "startDate", "expiryDate", "benefits");
+
+    public static SubscriptionResponse from(Subscription subscription) {
+        return new SubscriptionResponse(
+                subscription.getId(),
+                subscription.getUser().getId(),
+                subscription.getStatus(),
+                subscription.getCurrentTier().getId(),
+                subscription.getCurrentTier().getName(),
+                subscription.getCurrentPlan().getName(),
+                subscription.getStartDate(),
+                subscription.getExpiryDate(),
+                Collections.unmodifiableMap(subscription.getCurrentTier().getBenefits()));
+    }
+
+    /**
+     * Parse a comma-separated field list.
+     *
+     * @param fields e.g. "tierName,expiryDate"; null or blank selects every field
+     * @return The requested field names in request order, empty for all fields
+     * @throws InvalidRequestException if a name is not one of {@link #FIELDS}
+     */
+    public static Set<String> parseFields(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        if (fields == null || fields.isBlank()) {
+            return selected;
+        }
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!FIELDS.contains(name)) {
+                throw new InvalidRequestException("Unknown field '" + name + "'; allowed fields are " + FIELDS);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    /**
+     * Only the given fields, in the given order.
+     */
+    public Map<String, Object> select(Set<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, switch (field) {
+                case "id" -> id;
+                case "userId" -> userId;
+                case "status" -> status;
+                case "tierId" -> tierId;
+                case "tierName" -> tierName;
+                case "planName" -> planName;
+                case "startDate" -> startDate;
+                case "expiryDate" -> expiryDate;
+                case "benefits" -> benefits;
+                default -> throw new InvalidRequestException("Unknown field '" + field + "'");
+            });
+        }
+        return values;
+    }
+}
@@ -0,0 +1,26 @@
+package com.org.firstclub.repository.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A user became eligible for a tier they did not qualify for before.
+ * sequence increases by one per event and is the cursor for reading the promotion feed.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TierPromotionEvent {
+
+    private long sequence;
+    private Long userId;
+    private Long tierId;
+    private String tierName;
+    private Integer totalOrders;
+    private BigDecimal totalSpent;
+    private LocalDateTime detectedAt;
+}
@@ -0,0 +1,15 @@
+package com.org.firstclub.repository.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the User columns eligibility depends on, so bulk evaluation does not load full entities.
+ */
+public interface UserMetrics {
+
+    Long getId();
+
+    Integer getTotalOrders();
+
+    BigDecimal getTotalSpent();
+}
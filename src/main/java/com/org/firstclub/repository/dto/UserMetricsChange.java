@@ -0,0 +1,11 @@
+package com.org.firstclub.repository.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A user's order metrics immediately before and after an applied {@link UserMetricsDelta}.
+ */
+public record UserMetricsChange(Long userId,
+                                int previousOrders, BigDecimal previousSpent,
+                                int totalOrders, BigDecimal totalSpent) {
+}
@@ -0,0 +1,9 @@
+package com.org.firstclub.repository.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Accumulated change to one user's order metrics, applied atomically by UserRepository.incrementMetrics.
+ */
+public record UserMetricsDelta(Long userId, long orders, BigDecimal spent) {
+}
@@ -7,10 +7,17 @@ import lombok.Data;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+        // Declared for reference; the schema comes from the Flyway migrations in db/migration
+        // Backs the expiry sweeper's "status = ACTIVE AND expiry_date < today" scan, in index order
+        @Index(name = "idx_subscription_status_expiry", columnList = "status, expiry_date, id")
+})
 @Data
 public class Subscription {
+    // Sequence (not IDENTITY) ids so Hibernate can batch inserts; ids are pre-allocated 50 at a time
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscription_seq")
+    @SequenceGenerator(name = "subscription_seq", sequenceName = "subscription_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne
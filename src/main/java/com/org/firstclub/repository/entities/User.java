@@ -17,6 +17,8 @@ public class User {
     private String email;
 
     // Metrics for Tier calculation
+    @Column(nullable = false)
     private Integer totalOrders = 0;
+    @Column(nullable = false)
     private BigDecimal totalSpent = BigDecimal.ZERO;
 }
@@ -0,0 +1,144 @@
+package com.org.firstclub.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.org.firstclub.repository.entities.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of each user's active subscription, keyed by user ID.
+ * Entries are evicted by size and TTL, and a positive entry never outlives the end of the
+ * subscription's expiry date. "No active subscription" results are cached too, with a shorter TTL.
+ *
+ * Writers call {@link #invalidate(Long)}; inside a transaction the eviction happens after commit,
+ * so readers can never re-cache the pre-commit row.
+ */
+@Component
+public class ActiveSubscriptionCache {
+
+    private final Cache<Long, Entry> cache;
+    private final Clock clock;
+
+    @Autowired
+    public ActiveSubscriptionCache(@Value("${firstclub.status-cache.max-size:100000}") long maxSize,
+                                   @Value("${firstclub.status-cache.ttl-seconds:300}") long ttlSeconds,
+                                   @Value("${firstclub.status-cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this(maxSize, Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(negativeTtlSeconds),
+                Ticker.systemTicker(), Clock.systemDefaultZone());
+    }
+
+    ActiveSubscriptionCache(long maxSize, Duration ttl, Duration negativeTtl, Ticker ticker, Clock clock) {
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new EntryExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the user's active subscription, loading and caching it on a miss.
+     *
+     * @param userId The user ID
+     * @param loader Loads the active subscription from the database
+     * @return The cached or freshly loaded subscription, empty if the user has none
+     */
+    public Optional<Subscription> get(Long userId, Function<Long, Optional<Subscription>> loader) {
+        Entry entry = cache.get(userId, id -> {
+            Subscription subscription = loader.apply(id).orElse(null);
+            return new Entry(subscription, subscription != null ? expiresAtNanos(subscription) : 0L);
+        });
+        return Optional.ofNullable(entry.subscription);
+    }
+
+    /**
+     * Drop the cached status for a user, after the current transaction commits if there is one.
+     *
+     * @param userId The user whose subscription changed
+     */
+    public void invalidate(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        } else {
+            cache.invalidate(userId);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Hit, miss and eviction counters since startup.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // Nanoseconds from now until the subscription stops being valid (start of the day after expiry)
+    private long expiresAtNanos(Subscription subscription) {
+        Instant end = subscription.getExpiryDate().plusDays(1).atStartOfDay(clock.getZone()).toInstant();
+        return Math.max(0L, Duration.between(clock.instant(), end).toNanos());
+    }
+
+    static final class Entry {
+        final Subscription subscription; // null when the user has no active subscription
+        final long remainingValidityNanos;
+
+        Entry(Subscription subscription, long remainingValidityNanos) {
+            this.subscription = subscription;
+            this.remainingValidityNanos = remainingValidityNanos;
+        }
+    }
+
+    private static final class EntryExpiry implements Expiry<Long, Entry> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        EntryExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Long key, Entry value, long currentTime) {
+            if (value.subscription == null) {
+                return negativeTtlNanos;
+            }
+            return Math.min(ttlNanos, value.remainingValidityNanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Entry value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
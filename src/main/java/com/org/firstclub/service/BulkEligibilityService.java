@@ -0,0 +1,92 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.dto.BulkEligibilityRequest;
+import com.org.firstclub.repository.dto.BulkEligibilityResult;
+import com.org.firstclub.repository.dto.UserMetrics;
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.service.eligibility.EligibilityEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Service for evaluating tier eligibility of many users at once (marketing/CRM jobs).
+ * Users are read in chunks of metrics-only projections and evaluated on the calling thread against
+ * one compiled view of the tiers, taken when the job starts; results are handed to the caller in
+ * user ID order.
+ */
+@Service
+public class BulkEligibilityService {
+
+    static final int CHUNK_SIZE = 5000;
+
+    private final UserRepository userRepository;
+    private final EligibilityEngine eligibilityEngine;
+
+    @Autowired
+    public BulkEligibilityService(UserRepository userRepository, EligibilityEngine eligibilityEngine) {
+        this.userRepository = userRepository;
+        this.eligibilityEngine = eligibilityEngine;
+    }
+
+    /**
+     * Evaluate the selected users and pass each result to the consumer as soon as its chunk is done.
+     * Unknown user IDs are skipped, duplicates are evaluated once.
+     *
+     * @param request Explicit user IDs or an inclusive ID range
+     * @param consumer Receives one result per existing user, ordered by user ID
+     */
+    public void evaluate(BulkEligibilityRequest request, Consumer<BulkEligibilityResult> consumer) {
+        // Every chunk is evaluated against the same tiers, even if the catalog reloads meanwhile
+        EligibilityEngine.Compiled tiers = eligibilityEngine.compiled();
+
+        if (request.getUserIds() != null && !request.getUserIds().isEmpty()) {
+            List<Long> ids = request.getUserIds().stream().distinct().sorted().toList();
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+                emit(userRepository.findMetricsByIdInOrderByIdAsc(chunk), tiers, consumer);
+            }
+            return;
+        }
+
+        long afterId = request.getFromUserId() - 1;
+        while (true) {
+            List<UserMetrics> chunk = userRepository.findMetricsByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                    afterId, request.getToUserId(), Limit.of(CHUNK_SIZE));
+            emit(chunk, tiers, consumer);
+            if (chunk.size() < CHUNK_SIZE) {
+                return;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+    }
+
+    private void emit(List<UserMetrics> chunk, EligibilityEngine.Compiled tiers, Consumer<BulkEligibilityResult> consumer) {
+        for (UserMetrics metrics : chunk) {
+            consumer.accept(toResult(metrics, tiers));
+        }
+    }
+
+    private BulkEligibilityResult toResult(UserMetrics metrics, EligibilityEngine.Compiled tiers) {
+        int totalOrders = metrics.getTotalOrders() != null ? metrics.getTotalOrders() : 0;
+        long mask = tiers.eligibleTierMask(totalOrders, metrics.getTotalSpent());
+
+        List<Tier> rankedTiers = tiers.rankedTiers();
+        List<Long> eligibleTierIds = new ArrayList<>(Long.bitCount(mask));
+        Tier highest = null;
+        for (long remaining = mask; remaining != 0L; remaining &= remaining - 1) {
+            highest = rankedTiers.get(Long.numberOfTrailingZeros(remaining));
+            eligibleTierIds.add(highest.getId());
+        }
+
+        return new BulkEligibilityResult(metrics.getId(),
+                highest != null ? highest.getId() : null,
+                highest != null ? highest.getName() : null,
+                eligibleTierIds);
+    }
+}
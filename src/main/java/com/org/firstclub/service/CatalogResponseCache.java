@@ -0,0 +1,99 @@
+package com.org.firstclub.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The catalog endpoints' JSON bodies (GET /plans, GET /tiers), rendered once per catalog version.
+ *
+ * Each body is kept as identity and gzip-encoded bytes, so serving one is a buffer copy: no Jackson
+ * pass over the entity graph and no per-request compression. Bodies are re-rendered on the first
+ * request after the catalog version changes.
+ */
+@Component
+public class CatalogResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogResponseCache.class);
+
+    private final CatalogService catalogService;
+    private final ObjectMapper objectMapper;
+
+    private final ReentrantLock renderLock = new ReentrantLock();
+    private volatile RenderedCatalog rendered;
+
+    @Autowired
+    public CatalogResponseCache(CatalogService catalogService, ObjectMapper objectMapper) {
+        this.catalogService = catalogService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Get the rendered bodies of the current catalog, rendering them if the catalog changed.
+     *
+     * @return Bodies and version of the current catalog snapshot
+     */
+    public RenderedCatalog get() {
+        CatalogSnapshot snapshot = catalogService.getSnapshot();
+        RenderedCatalog current = rendered;
+        if (current != null && current.version().equals(snapshot.getVersion())) {
+            return current;
+        }
+        renderLock.lock();
+        try {
+            current = rendered;
+            if (current == null || !current.version().equals(snapshot.getVersion())) {
+                current = render(snapshot);
+                rendered = current;
+            }
+            return current;
+        } finally {
+            renderLock.unlock();
+        }
+    }
+
+    private RenderedCatalog render(CatalogSnapshot snapshot) {
+        Body plans = body(objectMapper.writeValueAsBytes(snapshot.getPricings()));
+        Body tiers = body(objectMapper.writeValueAsBytes(snapshot.getTiers()));
+        logger.info("Rendered catalog {}: plans {} bytes ({} gzip), tiers {} bytes ({} gzip)", snapshot.getVersion(),
+                plans.identity().length, plans.gzip().length, tiers.identity().length, tiers.gzip().length);
+        return new RenderedCatalog(snapshot.getVersion(), snapshot.getLastModified(), plans, tiers);
+    }
+
+    private static Body body(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+        // Compressed once per catalog version, so spend the CPU on the smallest output
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Body(json, compressed.toByteArray());
+    }
+
+    /**
+     * Catalog endpoint bodies for one catalog version.
+     */
+    public record RenderedCatalog(String version, Instant lastModified, Body plans, Body tiers) {
+    }
+
+    /**
+     * One response body, as JSON bytes and gzip-compressed; neither array may be modified.
+     */
+    public record Body(byte[] identity, byte[] gzip) {
+    }
+}
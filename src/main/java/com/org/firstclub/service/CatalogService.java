@@ -0,0 +1,134 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.config.ReplicaRouting;
+import com.org.firstclub.repository.PlanDurationRepository;
+import com.org.firstclub.repository.PlanPricingRepository;
+import com.org.firstclub.repository.TierRepository;
+import com.org.firstclub.repository.entities.PlanDuration;
+import com.org.firstclub.repository.entities.PlanPricing;
+import com.org.firstclub.repository.entities.Tier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service holding the in-memory membership catalog.
+ * Tiers, durations and pricings change rarely, so they are loaded once into an immutable
+ * {@link CatalogSnapshot} and served from memory. {@link #reload()} rebuilds the snapshot
+ * and swaps it in atomically; {@link #refresh()} does so in the background whenever the
+ * catalog in the database no longer matches the snapshot's content hash.
+ */
+@Service
+public class CatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogService.class);
+
+    private final TierRepository tierRepository;
+    private final PlanDurationRepository planDurationRepository;
+    private final PlanPricingRepository planPricingRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile CatalogSnapshot snapshot;
+
+    @Autowired
+    public CatalogService(TierRepository tierRepository,
+                          PlanDurationRepository planDurationRepository,
+                          PlanPricingRepository planPricingRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.tierRepository = tierRepository;
+        this.planDurationRepository = planDurationRepository;
+        this.planPricingRepository = planPricingRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Get the current catalog snapshot, loading it on first use.
+     *
+     * @return The current immutable catalog snapshot
+     */
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        reloadLock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = loaded(load());
+            }
+            return snapshot;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild the catalog from the database and atomically replace the current snapshot.
+     * Readers keep using the previous snapshot until the new one is fully built.
+     *
+     * @return The newly loaded snapshot
+     */
+    public CatalogSnapshot reload() {
+        reloadLock.lock();
+        try {
+            snapshot = loaded(load());
+            return snapshot;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Pick up tier, benefit, duration and pricing changes made in the database.
+     * Runs every firstclub.catalog.refresh-interval-ms; the new snapshot replaces the current one only
+     * if its version (content hash) differs, so an unchanged catalog keeps its snapshot, ETag and
+     * compiled eligibility rules.
+     *
+     * @return true if the catalog changed
+     */
+    @Scheduled(initialDelayString = "${firstclub.catalog.refresh-interval-ms:30000}",
+            fixedDelayString = "${firstclub.catalog.refresh-interval-ms:30000}")
+    public boolean refresh() {
+        reloadLock.lock();
+        try {
+            CatalogSnapshot current = snapshot;
+            CatalogSnapshot fresh = load();
+            if (current != null && current.getVersion().equals(fresh.getVersion())) {
+                return false;
+            }
+            snapshot = loaded(fresh);
+            return true;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private CatalogSnapshot load() {
+        CatalogSnapshot previous = snapshot;
+        // From the primary even with read replicas: a reload usually follows a catalog change
+        CatalogSnapshot loaded = ReplicaRouting.onPrimary(() -> readOnlyTransaction.execute(status -> {
+            // Loaded in one persistence context so pricings share the tier/duration instances below;
+            // three queries however many tiers and pricings are configured
+            List<Tier> tiers = tierRepository.findAllWithBenefits();
+            List<PlanDuration> durations = planDurationRepository.findAll();
+            List<PlanPricing> pricings = planPricingRepository.findAllWithTierAndDuration();
+            return new CatalogSnapshot(tiers, durations, pricings, previous);
+        }));
+        return loaded != null ? loaded : CatalogSnapshot.EMPTY;
+    }
+
+    private static CatalogSnapshot loaded(CatalogSnapshot loaded) {
+        logger.info("Loaded catalog snapshot {} with {} tiers, {} durations and {} pricings", loaded.getVersion(),
+                loaded.getTiers().size(), loaded.getDurations().size(), loaded.getPricings().size());
+        return loaded;
+    }
+}
@@ -0,0 +1,184 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.entities.PlanDuration;
+import com.org.firstclub.repository.entities.PlanPricing;
+import com.org.firstclub.repository.entities.Tier;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Immutable, point-in-time view of the membership catalog (tiers, durations and pricings).
+ * Built once by {@link CatalogService} and replaced wholesale on reload, so readers never
+ * observe a half-updated catalog and never need to lock.
+ *
+ * The entities held here are detached and shared between threads; callers must treat them as read-only.
+ *
+ * Each snapshot carries a version, a hash of everything the catalog endpoints serve, so it changes
+ * exactly when a tier, benefit, duration or price changes and is the same on every instance.
+ * HTTP ETags are derived from it.
+ */
+public final class CatalogSnapshot {
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(List.of(), List.of(), List.of());
+
+    private final List<Tier> tiers;
+    private final List<PlanDuration> durations;
+    private final List<PlanPricing> pricings;
+
+    private final Map<Long, Tier> tiersById;
+    private final Map<Long, PlanDuration> durationsById;
+    private final Map<Long, PlanPricing> pricingsById;
+    private final Map<PricingKey, PlanPricing> pricingsByTierAndDuration;
+
+    private final Instant loadedAt;
+    private final String version;
+    private final Instant lastModified;
+
+    public CatalogSnapshot(List<Tier> tiers, List<PlanDuration> durations, List<PlanPricing> pricings) {
+        this(tiers, durations, pricings, null);
+    }
+
+    /**
+     * Build a snapshot replacing {@code previous}; if the content is unchanged it keeps the previous
+     * snapshot's last-modified time, so a reload alone does not invalidate client caches.
+     */
+    CatalogSnapshot(List<Tier> tiers, List<PlanDuration> durations, List<PlanPricing> pricings,
+                    CatalogSnapshot previous) {
+        this.tiers = List.copyOf(tiers);
+        this.durations = List.copyOf(durations);
+        this.pricings = List.copyOf(pricings);
+
+        Map<Long, Tier> tierIndex = new HashMap<>();
+        for (Tier tier : this.tiers) {
+            tierIndex.put(tier.getId(), tier);
+        }
+
+        Map<Long, PlanDuration> durationIndex = new HashMap<>();
+        for (PlanDuration duration : this.durations) {
+            durationIndex.put(duration.getId(), duration);
+        }
+
+        Map<Long, PlanPricing> pricingIndex = new HashMap<>();
+        Map<PricingKey, PlanPricing> matrixIndex = new HashMap<>();
+        for (PlanPricing pricing : this.pricings) {
+            pricingIndex.put(pricing.getId(), pricing);
+            matrixIndex.put(new PricingKey(pricing.getTier().getId(), pricing.getPlanDuration().getId()), pricing);
+        }
+
+        this.tiersById = Collections.unmodifiableMap(tierIndex);
+        this.durationsById = Collections.unmodifiableMap(durationIndex);
+        this.pricingsById = Collections.unmodifiableMap(pricingIndex);
+        this.pricingsByTierAndDuration = Collections.unmodifiableMap(matrixIndex);
+        this.loadedAt = Instant.now();
+        this.version = contentHash(this.tiers, this.durations, this.pricings);
+        // Second precision, like the HTTP Last-Modified / If-Modified-Since dates it is compared with
+        this.lastModified = previous != null && previous.version.equals(version)
+                ? previous.lastModified
+                : loadedAt.truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    public List<Tier> getTiers() {
+        return tiers;
+    }
+
+    public List<PlanDuration> getDurations() {
+        return durations;
+    }
+
+    public List<PlanPricing> getPricings() {
+        return pricings;
+    }
+
+    public Optional<Tier> findTier(Long tierId) {
+        return Optional.ofNullable(tiersById.get(tierId));
+    }
+
+    public Optional<PlanDuration> findDuration(Long durationId) {
+        return Optional.ofNullable(durationsById.get(durationId));
+    }
+
+    public Optional<PlanPricing> findPricing(Long planPricingId) {
+        return Optional.ofNullable(pricingsById.get(planPricingId));
+    }
+
+    public Optional<PlanPricing> findPricing(Long tierId, Long durationId) {
+        return Optional.ofNullable(pricingsByTierAndDuration.get(new PricingKey(tierId, durationId)));
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Content hash of the catalog (hex); equal snapshots have equal versions.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * When the catalog content last changed, as far as this instance has seen.
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    // SHA-256 over every field the catalog endpoints serialize, in response order
+    private static String contentHash(List<Tier> tiers, List<PlanDuration> durations, List<PlanPricing> pricings) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        StringBuilder content = new StringBuilder();
+        for (Tier tier : tiers) {
+            appendTier(content.append('T'), tier);
+        }
+        for (PlanDuration duration : durations) {
+            appendDuration(content.append('D'), duration);
+        }
+        for (PlanPricing pricing : pricings) {
+            append(content.append('P'), pricing.getId());
+            append(content, pricing.getPrice());
+            appendTier(content, pricing.getTier());
+            appendDuration(content, pricing.getPlanDuration());
+        }
+        byte[] hash = digest.digest(content.toString().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash, 0, 16);
+    }
+
+    private static void appendTier(StringBuilder content, Tier tier) {
+        append(content, tier.getId());
+        append(content, tier.getName());
+        append(content, tier.getMinOrders());
+        append(content, tier.getMinOrderValue());
+        // Benefits are a HashMap; hash them in a stable order
+        new TreeMap<>(tier.getBenefits()).forEach((key, value) -> append(append(content, key), value));
+    }
+
+    private static void appendDuration(StringBuilder content, PlanDuration duration) {
+        append(content, duration.getId());
+        append(content, duration.getName());
+        append(content, duration.getDurationInDays());
+    }
+
+    private static StringBuilder append(StringBuilder content, Object value) {
+        // Separator after every value so adjacent fields cannot run together
+        return content.append(value).append('\u0000');
+    }
+
+    private record PricingKey(Long tierId, Long durationId) {
+    }
+}
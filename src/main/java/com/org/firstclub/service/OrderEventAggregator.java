@@ -0,0 +1,274 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.dto.OrderEvent;
+import com.org.firstclub.repository.dto.UserMetricsChange;
+import com.org.firstclub.repository.dto.UserMetricsDelta;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces incoming order events per user and periodically applies them to app_user.
+ *
+ * Events land in one of N lock stripes chosen by user ID, so concurrent writers only contend when
+ * their users hash to the same stripe and a hot user costs a map update, not a row lock.
+ * {@link #flush()} swaps every stripe for an empty map and writes the drained deltas as
+ * {@code total = total + delta} updates in one transaction; if that transaction fails the deltas are
+ * merged back and retried on the next flush, so an order is counted exactly once.
+ * When the database is reachable but the batch still fails, the users are retried one by one so a
+ * bad row only holds back its own user, and a user that keeps failing is dropped after
+ * firstclub.order-ingest.max-attempts flushes.
+ * Committed changes are handed to the {@link TierPromotionDetector}.
+ *
+ * Pending deltas live only in memory: shutdown flushes them, but a crash loses the orders accepted
+ * since the last flush (at most one flush interval). Producers that cannot accept that should
+ * resend from their own log.
+ */
+@Service
+public class OrderEventAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventAggregator.class);
+
+    private final UserRepository userRepository;
+    private final TierPromotionDetector tierPromotionDetector;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int maxAttempts;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder acceptedEvents = new LongAdder();
+    private final LongAdder appliedDeltas = new LongAdder();
+    private final LongAdder droppedDeltas = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    @Autowired
+    public OrderEventAggregator(UserRepository userRepository,
+                                TierPromotionDetector tierPromotionDetector,
+                                @Value("${firstclub.order-ingest.stripes:64}") int stripes,
+                                @Value("${firstclub.order-ingest.max-attempts:3}") int maxAttempts) {
+        this.userRepository = userRepository;
+        this.tierPromotionDetector = tierPromotionDetector;
+        // Round up to a power of two so the stripe index is a mask
+        int count = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeMask = this.stripes.length - 1;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Record one order for a user. Returns immediately; the totals change on the next flush.
+     *
+     * @param userId The ordering user
+     * @param amount Order value, at most two decimal places
+     */
+    public void record(Long userId, BigDecimal amount) {
+        long cents = amount.movePointRight(2).longValueExact();
+        Stripe stripe = stripes[stripeIndex(userId)];
+        stripe.lock.lock();
+        try {
+            stripe.pending.computeIfAbsent(userId, id -> new Delta()).add(1L, cents);
+        } finally {
+            stripe.lock.unlock();
+        }
+        acceptedEvents.increment();
+    }
+
+    public void recordAll(List<OrderEvent> events) {
+        for (OrderEvent event : events) {
+            record(event.getUserId(), event.getAmount());
+        }
+    }
+
+    /**
+     * Write all pending deltas to the database. Only one flush runs at a time.
+     *
+     * @return Number of users whose totals were updated
+     */
+    @Scheduled(fixedDelayString = "${firstclub.order-ingest.flush-interval-ms:1000}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Delta> drained = drain();
+            if (drained.isEmpty()) {
+                return 0;
+            }
+
+            List<UserMetricsDelta> deltas = new ArrayList<>(drained.size());
+            drained.forEach((userId, delta) -> deltas.add(new UserMetricsDelta(
+                    userId, delta.orders, BigDecimal.valueOf(delta.cents, 2))));
+
+            List<UserMetricsChange> changes;
+            try {
+                changes = userRepository.incrementMetrics(deltas);
+            } catch (RuntimeException e) {
+                // The whole batch rolled back, so nothing was applied
+                failedFlushes.increment();
+                if (isTransient(e)) {
+                    requeue(drained);
+                    logger.warn("Order metrics flush of {} users failed, will retry: {}", deltas.size(), e.getMessage());
+                    return 0;
+                }
+                logger.warn("Order metrics flush of {} users failed, retrying them one by one: {}",
+                        deltas.size(), e.getMessage());
+                changes = flushEach(drained);
+                deltas.removeIf(delta -> drained.get(delta.userId()).failed);
+            }
+
+            int dropped = deltas.size() - changes.size();
+            if (dropped > 0) {
+                logger.warn("Dropped order metrics for {} unknown users", dropped);
+            }
+            appliedDeltas.add(changes.size());
+            droppedDeltas.add(dropped);
+
+            // Already committed: a detection failure must not re-queue the deltas
+            try {
+                tierPromotionDetector.onMetricsChanged(changes);
+            } catch (RuntimeException e) {
+                logger.warn("Tier promotion detection failed for {} users: {}", changes.size(), e.getMessage());
+            }
+            return changes.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Apply each user's delta in its own transaction; failed ones are re-queued or, after maxAttempts, dropped
+    private List<UserMetricsChange> flushEach(Map<Long, Delta> drained) {
+        List<UserMetricsChange> changes = new ArrayList<>();
+        Map<Long, Delta> retry = new HashMap<>();
+        drained.forEach((userId, delta) -> {
+            try {
+                changes.addAll(userRepository.incrementMetrics(List.of(new UserMetricsDelta(
+                        userId, delta.orders, BigDecimal.valueOf(delta.cents, 2)))));
+            } catch (RuntimeException e) {
+                delta.failed = true;
+                if (!isTransient(e) && ++delta.attempts >= maxAttempts) {
+                    droppedDeltas.increment();
+                    logger.error("Dropped order metrics for user {} ({} orders, {} cents) after {} failed flushes: {}",
+                            userId, delta.orders, delta.cents, delta.attempts, e.getMessage());
+                } else {
+                    retry.put(userId, delta);
+                }
+            }
+        });
+        requeue(retry);
+        return changes;
+    }
+
+    // Connection and lock problems clear up on their own; anything else is a problem with the data
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof DataAccessResourceFailureException;
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Number of users with deltas waiting for the next flush.
+     */
+    public int pendingUsers() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                total += stripe.pending.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    public long acceptedEvents() {
+        return acceptedEvents.sum();
+    }
+
+    public long appliedDeltas() {
+        return appliedDeltas.sum();
+    }
+
+    public long droppedDeltas() {
+        return droppedDeltas.sum();
+    }
+
+    public long failedFlushes() {
+        return failedFlushes.sum();
+    }
+
+    private Map<Long, Delta> drain() {
+        Map<Long, Delta> drained = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            Map<Long, Delta> taken;
+            stripe.lock.lock();
+            try {
+                if (stripe.pending.isEmpty()) {
+                    continue;
+                }
+                taken = stripe.pending;
+                stripe.pending = new HashMap<>();
+            } finally {
+                stripe.lock.unlock();
+            }
+            // A user always maps to the same stripe, so stripes never share keys
+            drained.putAll(taken);
+        }
+        return drained;
+    }
+
+    private void requeue(Map<Long, Delta> drained) {
+        drained.forEach((userId, delta) -> {
+            Stripe stripe = stripes[stripeIndex(userId)];
+            stripe.lock.lock();
+            try {
+                Delta pending = stripe.pending.computeIfAbsent(userId, id -> new Delta());
+                pending.add(delta.orders, delta.cents);
+                pending.attempts = Math.max(pending.attempts, delta.attempts);
+            } finally {
+                stripe.lock.unlock();
+            }
+        });
+    }
+
+    private int stripeIndex(Long userId) {
+        int h = Long.hashCode(userId) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        Map<Long, Delta> pending = new HashMap<>(); // guarded by lock
+    }
+
+    private static final class Delta {
+        long orders;
+        long cents;
+        int attempts; // failed flushes of this user alone
+        boolean failed; // not applied by the current flush
+
+        void add(long orders, long cents) {
+            this.orders += orders;
+            this.cents += cents;
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.org.firstclub.service;
 
-import com.org.firstclub.repository.PlanPricingRepository;
 import com.org.firstclub.repository.entities.PlanPricing;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,23 +13,25 @@ import java.util.List;
  * Handles plan-related business logic following Single Responsibility Principle.
  */
 @Service
+@Timed(value = "firstclub.service", histogram = true)
 @Transactional(readOnly = true)
 public class PlanService {
     
-    private final PlanPricingRepository planPricingRepository;
+    private final CatalogService catalogService;
     
     @Autowired
-    public PlanService(PlanPricingRepository planPricingRepository) {
-        this.planPricingRepository = planPricingRepository;
+    public PlanService(CatalogService catalogService) {
+        this.catalogService = catalogService;
     }
     
     /**
      * Get all available plan pricing options (tier + duration + price combinations).
+     * Served from the in-memory catalog snapshot.
      * 
      * @return List of all plan pricing options
      */
     public List<PlanPricing> getAllPlans() {
-        return planPricingRepository.findAll();
+        return catalogService.getSnapshot().getPricings();
     }
 }
 
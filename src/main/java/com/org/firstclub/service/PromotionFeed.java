@@ -0,0 +1,99 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.dto.CursorPage;
+import com.org.firstclub.repository.dto.TierPromotionEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory feed of tier promotion events, read by sequence number.
+ * Holds the most recent {@code capacity} events in a ring buffer; older events are overwritten,
+ * so readers that fall further behind than that skip ahead to the oldest retained event.
+ */
+@Component
+public class PromotionFeed {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final TierPromotionEvent[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long lastSequence; // guarded by lock; 0 before the first event
+
+    @Autowired
+    public PromotionFeed(@Value("${firstclub.promotion-feed.capacity:10000}") int capacity) {
+        this.ring = new TierPromotionEvent[capacity];
+    }
+
+    /**
+     * Append an event and assign it the next sequence number.
+     *
+     * @return The appended event
+     */
+    public TierPromotionEvent publish(Long userId, Long tierId, String tierName,
+                                      Integer totalOrders, BigDecimal totalSpent) {
+        lock.lock();
+        try {
+            long sequence = ++lastSequence;
+            TierPromotionEvent event = new TierPromotionEvent(sequence, userId, tierId, tierName,
+                    totalOrders, totalSpent, LocalDateTime.now());
+            ring[(int) (sequence % ring.length)] = event;
+            return event;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Events with a sequence number greater than afterSequence, oldest first.
+     *
+     * @param afterSequence Last sequence the caller has seen (0 to start from the oldest retained event)
+     * @param limit Maximum number of events to return
+     * @return Up to limit events
+     */
+    public List<TierPromotionEvent> readAfter(long afterSequence, int limit) {
+        lock.lock();
+        try {
+            long oldest = Math.max(1L, lastSequence - ring.length + 1);
+            long from = Math.max(afterSequence + 1, oldest);
+            long to = Math.min(lastSequence, from + limit - 1);
+
+            List<TierPromotionEvent> events = new ArrayList<>((int) Math.max(0L, to - from + 1));
+            for (long sequence = from; sequence <= to; sequence++) {
+                events.add(ring[(int) (sequence % ring.length)]);
+            }
+            return events;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * One page of the feed for polling clients. The page size is clamped to [1, MAX_PAGE_SIZE].
+     *
+     * @param afterSequence Last sequence the caller has seen
+     * @param limit Requested page size
+     * @return Events after the cursor; nextCursor is the sequence to poll from next
+     */
+    public CursorPage<TierPromotionEvent> readPage(long afterSequence, int limit) {
+        List<TierPromotionEvent> events = readAfter(afterSequence, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        long nextCursor = events.isEmpty() ? afterSequence : events.get(events.size() - 1).getSequence();
+        return new CursorPage<>(events, nextCursor);
+    }
+
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.org.firstclub.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.firstclub.config.ReplicaRouting;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Replica-lag safeguard: remembers which users were written recently and sends their reads to the
+ * primary for a short window, so a client reading right after its own subscribe sees the change
+ * even if the replicas have not applied it yet. Reads of other users keep going to the replicas.
+ *
+ * The window (firstclub.datasource.replica.read-your-writes-ms) should exceed the replicas' usual lag.
+ * Without read-replica routing every read already goes to the primary and this does nothing.
+ */
+@Component
+public class ReadYourWritesGuard {
+
+    private final boolean enabled;
+    private final Cache<Long, Boolean> recentWrites;
+
+    @Autowired
+    public ReadYourWritesGuard(@Value("${firstclub.datasource.replica.enabled:false}") boolean enabled,
+                               @Value("${firstclub.datasource.replica.read-your-writes-ms:5000}") long windowMillis) {
+        this.enabled = enabled;
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(windowMillis))
+                .build();
+    }
+
+    /**
+     * Record a write to the user's data. Inside a transaction the window is restarted after commit,
+     * since replication lag is measured from there.
+     *
+     * @param userId The user whose data changed
+     */
+    public void recordWrite(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        recentWrites.put(userId, Boolean.TRUE);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWrites.put(userId, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    /**
+     * Run a read of the user's data, on the primary if the user was written within the window.
+     *
+     * @param userId The user being read
+     * @param reader The read, run before any other statement of its transaction
+     * @return What the reader returned
+     */
+    public <T> T read(Long userId, Supplier<T> reader) {
+        if (enabled && recentWrites.getIfPresent(userId) != null) {
+            return ReplicaRouting.onPrimary(reader);
+        }
+        return reader.get();
+    }
+}
@@ -0,0 +1,150 @@
+package com.org.firstclub.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.org.firstclub.exception.IdempotencyKeyReuseException;
+import com.org.firstclub.repository.entities.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses duplicate subscribe requests within this instance.
+ *
+ * Single flight: while a subscribe for a (userId, planPricingId) pair is running, identical
+ * requests do not start their own transaction; they wait for the running one and get its
+ * subscription, or its exception. Without this every client retry runs the whole subscribe after
+ * the first and mostly ends in an optimistic-lock conflict or a no-op change.
+ *
+ * Idempotency keys: a successful result is kept for the idempotency window under the request's
+ * Idempotency-Key, and a retry carrying the same key gets it back without touching the database.
+ * Reusing a key for a different user or plan is rejected. Failures are not stored, so a retry of a
+ * failed request runs again.
+ */
+@Component
+public class SubscribeRequestCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscribeRequestCoalescer.class);
+
+    private final ConcurrentHashMap<Request, CompletableFuture<Subscription>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, Completed> completed;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+
+    @Autowired
+    public SubscribeRequestCoalescer(@Value("${firstclub.subscribe.idempotency-window-seconds:600}") long windowSeconds,
+                                     @Value("${firstclub.subscribe.idempotency-max-keys:100000}") long maxKeys) {
+        this(Duration.ofSeconds(windowSeconds), maxKeys, Ticker.systemTicker());
+    }
+
+    SubscribeRequestCoalescer(Duration window, long maxKeys, Ticker ticker) {
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxKeys)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Run a subscribe, or join an identical one already running, or replay the stored result of
+     * an earlier request with the same idempotency key.
+     * Inside a caller's transaction the subscribe simply runs: its outcome is not final until the
+     * caller commits, so it must not be shared.
+     *
+     * @param userId The user ID
+     * @param planPricingId The plan pricing ID
+     * @param idempotencyKey Client-chosen key identifying retries of one request, or null
+     * @param subscribe Performs the subscribe
+     * @return The subscription produced by whichever request executed
+     * @throws IdempotencyKeyReuseException if the key was used for a different user or plan
+     */
+    public Subscription execute(Long userId, Long planPricingId, String idempotencyKey, Supplier<Subscription> subscribe) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return subscribe.get();
+        }
+
+        Request request = new Request(userId, planPricingId);
+        if (idempotencyKey != null) {
+            Completed previous = completed.getIfPresent(idempotencyKey);
+            if (previous != null) {
+                if (!previous.request.equals(request)) {
+                    throw new IdempotencyKeyReuseException(idempotencyKey);
+                }
+                replayed.increment();
+                logger.debug("Replaying subscribe of user {} for Idempotency-Key {}", userId, idempotencyKey);
+                return previous.subscription;
+            }
+        }
+
+        Subscription subscription = singleFlight(request, subscribe);
+        if (idempotencyKey != null) {
+            completed.put(idempotencyKey, new Completed(request, subscription));
+        }
+        return subscription;
+    }
+
+    private Subscription singleFlight(Request request, Supplier<Subscription> subscribe) {
+        CompletableFuture<Subscription> mine = new CompletableFuture<>();
+        CompletableFuture<Subscription> running = inFlight.putIfAbsent(request, mine);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        executions.increment();
+        try {
+            Subscription subscription = subscribe.get();
+            mine.complete(subscription);
+            return subscription;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(request, mine);
+        }
+    }
+
+    /**
+     * Subscribes that actually ran.
+     */
+    public long executions() {
+        return executions.sum();
+    }
+
+    /**
+     * Requests that waited for an identical running subscribe and shared its result.
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Requests answered from a stored result for their Idempotency-Key.
+     */
+    public long replayed() {
+        return replayed.sum();
+    }
+
+    private record Request(Long userId, Long planPricingId) {
+    }
+
+    private record Completed(Request request, Subscription subscription) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.SubscriptionRepository;
+import com.org.firstclub.repository.dto.ExpiringSubscription;
+import com.org.firstclub.service.journal.SubscriptionEventType;
+import com.org.firstclub.service.journal.SubscriptionJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Background job that marks ACTIVE subscriptions past their expiry date as EXPIRED.
+ * Works in chunks of bulk UPDATEs, each in its own short transaction, with a pause between
+ * chunks so a large backlog does not hold locks or starve request traffic.
+ */
+@Service
+@ConditionalOnProperty(name = "firstclub.expiry-sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class SubscriptionExpirySweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionExpirySweeper.class);
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionJournal journal;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long pauseMillis;
+
+    @Autowired
+    public SubscriptionExpirySweeper(SubscriptionRepository subscriptionRepository,
+                                     SubscriptionJournal journal,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${firstclub.expiry-sweeper.chunk-size:1000}") int chunkSize,
+                                     @Value("${firstclub.expiry-sweeper.pause-ms:50}") long pauseMillis) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.journal = journal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${firstclub.expiry-sweeper.interval-ms:60000}",
+            initialDelayString = "${firstclub.expiry-sweeper.interval-ms:60000}")
+    public void sweepScheduled() {
+        sweep(LocalDate.now());
+    }
+
+    /**
+     * Expire every ACTIVE subscription whose expiry date is before the given day.
+     *
+     * @param today The current date; subscriptions expiring before it are expired
+     * @return Number of subscriptions marked EXPIRED
+     */
+    public int sweep(LocalDate today) {
+        int total = 0;
+        while (true) {
+            Integer expired = transactionTemplate.execute(status -> expireChunk(today));
+            int count = expired != null ? expired : 0;
+            total += count;
+            if (count < chunkSize || !pause()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            logger.info("Expiry sweep marked {} subscriptions as EXPIRED", total);
+        }
+        return total;
+    }
+
+    private int expireChunk(LocalDate today) {
+        List<ExpiringSubscription> expiring = subscriptionRepository.findExpiredActive(today, Limit.of(chunkSize));
+        if (expiring.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = expiring.stream().map(ExpiringSubscription::getId).toList();
+        int updated = subscriptionRepository.expireActive(ids, today);
+
+        // Rows renewed or cancelled since they were selected were left alone; when there are any,
+        // journal only the rows this update actually expired
+        Set<Long> expired = updated < ids.size() ? Set.copyOf(subscriptionRepository.findExpiredIdsIn(ids)) : null;
+        for (ExpiringSubscription subscription : expiring) {
+            if (expired == null || expired.contains(subscription.getId())) {
+                journal.record(SubscriptionEventType.EXPIRE, subscription.getUserId(), subscription.getId(),
+                        subscription.getTierId(), null, subscription.getPlanDurationId(),
+                        subscription.getStartDate(), subscription.getExpiryDate());
+            }
+        }
+        // Report the selected count so a row renewed in between does not end the sweep early
+        return ids.size();
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.exception.ConcurrentUpdateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes subscription mutations per user within this instance.
+ *
+ * Each mutation runs in its own transaction while holding the lock stripe of its user, so a
+ * double-click or client retry waits for the first request to commit instead of racing it and
+ * failing on the @Version check. Conflicts that still happen (another instance, the expiry sweeper,
+ * a batch) are retried in a fresh transaction, up to maxAttempts, with jittered exponential backoff
+ * taken outside the lock.
+ */
+@Component
+public class SubscriptionMutationGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionMutationGuard.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] stripes;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+    private final LongAccumulator maxLockWaitNanos = new LongAccumulator(Math::max, 0L);
+
+    @Autowired
+    public SubscriptionMutationGuard(PlatformTransactionManager transactionManager,
+                                     @Value("${firstclub.subscription-mutations.lock-stripes:256}") int stripes,
+                                     @Value("${firstclub.subscription-mutations.max-attempts:3}") int maxAttempts,
+                                     @Value("${firstclub.subscription-mutations.backoff-ms:20}") long backoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Round up to a power of two so the stripe index is a mask
+        int count = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+    }
+
+    /**
+     * Run a mutation of the user's subscription in its own transaction, serialized with other
+     * mutations of the same user and retried on optimistic-lock conflicts.
+     * When the caller already has a transaction the mutation simply joins it: the lock could not
+     * cover the caller's commit and a failed attempt would leave the transaction rollback-only.
+     *
+     * @param userId The user whose subscription is changed
+     * @param mutation The change; must be safe to re-run from scratch
+     * @return The mutation's result
+     * @throws ConcurrentUpdateException if every attempt conflicted
+     */
+    public <T> T execute(Long userId, Supplier<T> mutation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return mutation.get();
+        }
+
+        ReentrantLock lock = stripes[stripeIndex(userId)];
+        for (int attempt = 1; ; attempt++) {
+            long waitStart = System.nanoTime();
+            lock.lock();
+            long waited = System.nanoTime() - waitStart;
+            lockWaitNanos.add(waited);
+            maxLockWaitNanos.accumulate(waited);
+            executions.increment();
+            try {
+                return transactionTemplate.execute(status -> mutation.get());
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw new ConcurrentUpdateException("Subscription for user " + userId
+                            + " was modified concurrently, please retry", e);
+                }
+                logger.debug("Optimistic lock conflict for user {} on attempt {}, retrying", userId, attempt);
+            } finally {
+                lock.unlock();
+            }
+
+            retries.increment();
+            backoff(attempt);
+        }
+    }
+
+    /**
+     * Run one transaction that changes the subscriptions of several users, holding the lock stripe
+     * of every one of them until it commits. Stripes are taken in index order, so overlapping batches
+     * cannot deadlock each other. Not retried: a conflict is thrown as is and the caller decides how
+     * to redo the work. Joins the caller's transaction like {@link #execute(Long, Supplier)}.
+     *
+     * @param userIds The users whose subscriptions are changed
+     * @param mutation The change
+     * @return The mutation's result
+     */
+    public <T> T executeAll(Collection<Long> userIds, Supplier<T> mutation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return mutation.get();
+        }
+
+        int[] indexes = userIds.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray();
+        int locked = 0;
+        long waitStart = System.nanoTime();
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            long waited = System.nanoTime() - waitStart;
+            lockWaitNanos.add(waited);
+            maxLockWaitNanos.accumulate(waited);
+            executions.increment();
+            return transactionTemplate.execute(status -> mutation.get());
+        } catch (OptimisticLockingFailureException e) {
+            conflicts.increment();
+            throw e;
+        } finally {
+            while (locked > 0) {
+                stripes[indexes[--locked]].unlock();
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = backoffMillis << Math.min(attempt - 1, 10);
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling) + 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying subscription update", e);
+        }
+    }
+
+    private int stripeIndex(Long userId) {
+        int h = Long.hashCode(userId) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    /**
+     * Transactions started, including retries.
+     */
+    public long executions() {
+        return executions.sum();
+    }
+
+    /**
+     * Attempts that failed on an optimistic-lock conflict.
+     */
+    public long conflicts() {
+        return conflicts.sum();
+    }
+
+    public long retries() {
+        return retries.sum();
+    }
+
+    /**
+     * Mutations that gave up after maxAttempts conflicts.
+     */
+    public long exhausted() {
+        return exhausted.sum();
+    }
+
+    /**
+     * Total time spent waiting for a user's lock stripe.
+     */
+    public long lockWaitNanos() {
+        return lockWaitNanos.sum();
+    }
+
+    public long maxLockWaitNanos() {
+        return maxLockWaitNanos.get();
+    }
+}
@@ -1,65 +1,139 @@
 package com.org.firstclub.service;
 
+import com.org.firstclub.exception.ConcurrentUpdateException;
+import com.org.firstclub.exception.IdempotencyKeyReuseException;
 import com.org.firstclub.exception.ResourceNotFoundException;
 import com.org.firstclub.exception.SubscriptionException;
 import com.org.firstclub.exception.UserNotEligibleException;
-import com.org.firstclub.repository.PlanPricingRepository;
 import com.org.firstclub.repository.SubscriptionRepository;
 import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.dto.BatchSubscriptionResult;
+import com.org.firstclub.repository.dto.SubscriptionRequest;
 import com.org.firstclub.repository.entities.PlanPricing;
 import com.org.firstclub.repository.entities.Subscription;
 import com.org.firstclub.repository.entities.User;
 import com.org.firstclub.repository.enums.SubscriptionStatus;
-import com.org.firstclub.utils.CommonUtils;
+import com.org.firstclub.service.eligibility.EligibilityEngine;
+import com.org.firstclub.service.journal.SubscriptionEventType;
+import com.org.firstclub.service.journal.SubscriptionJournal;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing subscriptions.
  * Handles subscription-related business logic including subscribe, upgrade, downgrade, and cancel operations.
  */
 @Service
+@Timed(value = "firstclub.service", histogram = true)
 @Transactional
 public class SubscriptionService {
 
     private static final Logger logger = LoggerFactory.getLogger(SubscriptionService.class);
 
+    // Items per flush in batch subscribe; a multiple of hibernate.jdbc.batch_size
+    static final int BATCH_CHUNK_SIZE = 500;
+
     private final SubscriptionRepository subscriptionRepository;
-    private final PlanPricingRepository planPricingRepository;
+    private final CatalogService catalogService;
     private final UserRepository userRepository;
-    private final CommonUtils commonUtils;
+    private final EligibilityEngine eligibilityEngine;
+    private final EntityManager entityManager;
+    private final ActiveSubscriptionCache activeSubscriptionCache;
+    private final SubscriptionMutationGuard mutationGuard;
+    private final MeterRegistry meterRegistry;
+    private final ReadYourWritesGuard readYourWrites;
+    private final SubscribeRequestCoalescer coalescer;
+    private final SubscriptionJournal journal;
+    private final Counter lazyExpirations;
 
     @Autowired
     public SubscriptionService(SubscriptionRepository subscriptionRepository,
-                               PlanPricingRepository planPricingRepository,
+                               CatalogService catalogService,
                                UserRepository userRepository,
-                               CommonUtils commonUtils) {
+                               EligibilityEngine eligibilityEngine,
+                               EntityManager entityManager,
+                               ActiveSubscriptionCache activeSubscriptionCache,
+                               SubscriptionMutationGuard mutationGuard,
+                               MeterRegistry meterRegistry,
+                               ReadYourWritesGuard readYourWrites,
+                               SubscribeRequestCoalescer coalescer,
+                               SubscriptionJournal journal) {
         this.subscriptionRepository = subscriptionRepository;
-        this.planPricingRepository = planPricingRepository;
+        this.catalogService = catalogService;
         this.userRepository = userRepository;
-        this.commonUtils = commonUtils;
+        this.eligibilityEngine = eligibilityEngine;
+        this.entityManager = entityManager;
+        this.activeSubscriptionCache = activeSubscriptionCache;
+        this.mutationGuard = mutationGuard;
+        this.meterRegistry = meterRegistry;
+        this.readYourWrites = readYourWrites;
+        this.coalescer = coalescer;
+        this.journal = journal;
+        this.lazyExpirations = Counter.builder("firstclub.subscription.lazy.expirations")
+                .description("Status reads of an active subscription past its expiry date, not yet swept")
+                .register(meterRegistry);
     }
 
     /**
      * Subscribe a user to a plan by user ID and plan pricing ID.
      * Handles new subscriptions, upgrades, and downgrades.
+     * Serialized with other changes to the same user's subscription and retried on conflicts
+     * (see SubscriptionMutationGuard).
      *
      * @param userId The user ID
      * @param planPricingId The plan pricing ID
      * @return The created or updated subscription
      * @throws ResourceNotFoundException if user or plan not found
      * @throws UserNotEligibleException if user doesn't meet tier requirements
+     * @throws ConcurrentUpdateException if concurrent updates kept conflicting
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Subscription subscribe(Long userId, Long planPricingId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
-        return subscribe(user, planPricingId);
+        return subscribe(userId, planPricingId, null);
+    }
+
+    /**
+     * Subscribe a user to a plan, coalescing duplicates (see SubscribeRequestCoalescer).
+     * Identical requests already running are joined instead of executed again, and a retry with the
+     * idempotency key of an earlier successful request gets that request's subscription back.
+     *
+     * @param userId The user ID
+     * @param planPricingId The plan pricing ID
+     * @param idempotencyKey Client-chosen key identifying retries of one request, or null
+     * @return The created or updated subscription
+     * @throws ResourceNotFoundException if user or plan not found
+     * @throws UserNotEligibleException if user doesn't meet tier requirements
+     * @throws ConcurrentUpdateException if concurrent updates kept conflicting
+     * @throws IdempotencyKeyReuseException if the key was used for a different user or plan
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Subscription subscribe(Long userId, Long planPricingId, String idempotencyKey) {
+        return coalescer.execute(userId, planPricingId, idempotencyKey, () -> mutationGuard.execute(userId, () -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+            return subscribe(user, planPricingId);
+        }));
     }
 
     /**
@@ -73,38 +147,173 @@ public class SubscriptionService {
      * @throws UserNotEligibleException if user doesn't meet tier requirements
      */
     public Subscription subscribe(User user, Long planPricingId) {
-        PlanPricing pricing = planPricingRepository.findById(planPricingId)
+        PlanPricing pricing = catalogService.getSnapshot().findPricing(planPricingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Plan Pricing", planPricingId));
 
         // 1. Validate Eligibility
-        if (!commonUtils.isEligible(user, pricing.getTier())) {
-            String tierName = pricing.getTier().getName();
-            Integer minOrders = pricing.getTier().getMinOrders();
-            String reason = String.format("Requires minimum %d orders or minimum order value", minOrders);
-            throw new UserNotEligibleException(tierName, reason);
-        }
+        validateEligibility(user, pricing);
 
-        // 2. Check existing subscription
-        Optional<Subscription> existing = subscriptionRepository.findByUserIdAndStatus(
-                user.getId(), SubscriptionStatus.ACTIVE);
+        // 2. Check existing subscription; user_id is unique, so this is the user's only row whatever its status
+        Optional<Subscription> existing = subscriptionRepository.findByUserId(user.getId());
 
-        if (existing.isPresent()) {
+        if (existing.isPresent() && existing.get().getStatus() == SubscriptionStatus.ACTIVE) {
             logger.info("User {} has active subscription. Handling upgrade/downgrade to plan {}",
                     user.getId(), planPricingId);
             return handleUpgrade(existing.get(), pricing);
         }
 
-        // 3. Create New Subscription
+        // 3. Reactivate a cancelled or expired subscription; a second row would violate the unique user_id
+        if (existing.isPresent()) {
+            Subscription previous = existing.get();
+            logger.info("Reactivating {} subscription {} for user {} with plan {}",
+                    previous.getStatus(), previous.getId(), user.getId(), planPricingId);
+            Long previousTierId = previous.getCurrentTier().getId();
+            applyPlan(previous, pricing);
+            subscriptionChanged(user.getId());
+            Subscription reactivated = subscriptionRepository.save(previous);
+            journal.record(SubscriptionEventType.SUBSCRIBE, reactivated, previousTierId);
+            return reactivated;
+        }
+
+        // 4. Create New Subscription
         logger.info("Creating new subscription for user {} with plan {}", user.getId(), planPricingId);
         Subscription subscription = new Subscription();
         subscription.setUser(user);
-        subscription.setCurrentTier(pricing.getTier());
-        subscription.setCurrentPlan(pricing.getPlanDuration());
-        subscription.setStartDate(LocalDate.now());
-        subscription.setExpiryDate(LocalDate.now().plusDays(pricing.getPlanDuration().getDurationInDays()));
-        subscription.setStatus(SubscriptionStatus.ACTIVE);
+        applyPlan(subscription, pricing);
 
-        return subscriptionRepository.save(subscription);
+        subscriptionChanged(user.getId());
+        Subscription created = subscriptionRepository.save(subscription);
+        journal.record(SubscriptionEventType.SUBSCRIBE, created, null);
+        return created;
+    }
+
+    /**
+     * Subscribe many users in one call.
+     * Users and their subscriptions are loaded with set-based IN queries per chunk, eligibility is
+     * checked in memory, and inserts/updates are flushed in JDBC batches. Each item gets its own
+     * result, so an ineligible or unknown user is rejected without failing the rest of the batch.
+     * Each chunk commits in its own transaction while holding the lock stripes of its users (see
+     * SubscriptionMutationGuard). If a chunk conflicts with a concurrent change, its items are redone
+     * one at a time, so only the conflicting item fails.
+     *
+     * @param requests The (userId, planPricingId) pairs to subscribe
+     * @return One result per request, in request order
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<BatchSubscriptionResult> subscribeBatch(List<SubscriptionRequest> requests) {
+        List<BatchSubscriptionResult> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += BATCH_CHUNK_SIZE) {
+            List<SubscriptionRequest> chunk = requests.subList(from, Math.min(from + BATCH_CHUNK_SIZE, requests.size()));
+            results.addAll(commitChunk(chunk));
+        }
+
+        logger.info("Batch subscribe processed {} items", requests.size());
+        return results;
+    }
+
+    private List<BatchSubscriptionResult> commitChunk(List<SubscriptionRequest> chunk) {
+        Set<Long> userIds = chunk.stream().map(SubscriptionRequest::getUserId).collect(Collectors.toSet());
+        try {
+            return mutationGuard.executeAll(userIds, () -> subscribeChunk(chunk, userIds));
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            // Inside the caller's transaction there is nothing left to retry in
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw e;
+            }
+            logger.warn("Batch subscribe chunk of {} items conflicted, retrying item by item: {}",
+                    chunk.size(), e.getMessage());
+            List<BatchSubscriptionResult> results = new ArrayList<>(chunk.size());
+            for (SubscriptionRequest request : chunk) {
+                results.add(subscribeItem(request));
+            }
+            return results;
+        }
+    }
+
+    // One item in its own transaction; optimistic-lock conflicts are retried by the guard
+    private BatchSubscriptionResult subscribeItem(SubscriptionRequest request) {
+        Long userId = request.getUserId();
+        try {
+            return mutationGuard.execute(userId, () -> subscribeChunk(List.of(request), Set.of(userId))).get(0);
+        } catch (ConcurrentUpdateException | DataIntegrityViolationException e) {
+            return new BatchSubscriptionResult(userId, request.getPlanPricingId(),
+                    BatchSubscriptionResult.Outcome.FAILED, null, e.getMessage());
+        }
+    }
+
+    private List<BatchSubscriptionResult> subscribeChunk(List<SubscriptionRequest> chunk, Set<Long> userIds) {
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Subscription> subscriptions = new HashMap<>();
+        for (Subscription subscription : subscriptionRepository.findByUserIdIn(userIds)) {
+            subscriptions.put(subscription.getUser().getId(), subscription);
+        }
+
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+        List<Subscription> created = new ArrayList<>();
+        List<Subscription> touched = new ArrayList<>(chunk.size());
+        List<SubscriptionEventType> events = new ArrayList<>(chunk.size());
+        List<Long> previousTiers = new ArrayList<>(chunk.size());
+        List<BatchSubscriptionResult> results = new ArrayList<>(chunk.size());
+
+        for (SubscriptionRequest request : chunk) {
+            Long userId = request.getUserId();
+            Long planPricingId = request.getPlanPricingId();
+            try {
+                User user = users.get(userId);
+                if (user == null) {
+                    throw new ResourceNotFoundException("User", userId);
+                }
+                PlanPricing pricing = catalog.findPricing(planPricingId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Plan Pricing", planPricingId));
+                validateEligibility(user, pricing);
+
+                Subscription subscription = subscriptions.get(userId);
+                BatchSubscriptionResult.Outcome outcome;
+                if (subscription == null) {
+                    subscription = new Subscription();
+                    subscription.setUser(user);
+                    applyPlan(subscription, pricing);
+                    subscriptions.put(userId, subscription);
+                    created.add(subscription);
+                    outcome = BatchSubscriptionResult.Outcome.CREATED;
+                    events.add(SubscriptionEventType.SUBSCRIBE);
+                    previousTiers.add(null);
+                } else {
+                    // An ACTIVE row is upgraded or downgraded, a cancelled or expired one reactivated,
+                    // as in subscribe(User, Long)
+                    Long previousTierId = subscription.getCurrentTier().getId();
+                    events.add(subscription.getStatus() == SubscriptionStatus.ACTIVE
+                            ? changeType(previousTierId, pricing.getTier().getId())
+                            : SubscriptionEventType.SUBSCRIBE);
+                    previousTiers.add(previousTierId);
+                    applyPlan(subscription, pricing);
+                    outcome = BatchSubscriptionResult.Outcome.UPDATED;
+                }
+                touched.add(subscription);
+                results.add(new BatchSubscriptionResult(userId, planPricingId, outcome, null, null));
+            } catch (ResourceNotFoundException | UserNotEligibleException e) {
+                touched.add(null);
+                events.add(null);
+                previousTiers.add(null);
+                results.add(new BatchSubscriptionResult(userId, planPricingId,
+                        BatchSubscriptionResult.Outcome.REJECTED, null, e.getMessage()));
+            }
+        }
+
+        // Sequence ids are assigned on persist; inserts and updates go out in JDBC batches on flush
+        subscriptionRepository.saveAll(created);
+        subscriptionRepository.flush();
+        for (int i = 0; i < results.size(); i++) {
+            Subscription subscription = touched.get(i);
+            if (subscription != null) {
+                results.get(i).setSubscriptionId(subscription.getId());
+                subscriptionChanged(results.get(i).getUserId());
+                journal.record(events.get(i), subscription, previousTiers.get(i));
+            }
+        }
+        entityManager.clear();
+        return results;
     }
 
     /**
@@ -124,56 +333,101 @@ public class SubscriptionService {
 
         // Update the existing subscription instead of creating a new one
         // This avoids unique constraint violation on user_id
-        current.setCurrentTier(newPlan.getTier());
-        current.setCurrentPlan(newPlan.getPlanDuration());
-        current.setStartDate(LocalDate.now());
-        current.setExpiryDate(LocalDate.now().plusDays(newPlan.getPlanDuration().getDurationInDays()));
-        current.setStatus(SubscriptionStatus.ACTIVE);
+        Long previousTierId = current.getCurrentTier().getId();
+        applyPlan(current, newPlan);
+
+        subscriptionChanged(current.getUser().getId());
+        Subscription updated = subscriptionRepository.save(current);
+        journal.record(changeType(previousTierId, newPlan.getTier().getId()), updated, previousTierId);
+        return updated;
+    }
+
+    // Upgrade or downgrade by tier rank; the same tier again is a renewal
+    private SubscriptionEventType changeType(Long fromTierId, Long toTierId) {
+        if (fromTierId.equals(toTierId)) {
+            return SubscriptionEventType.RENEW;
+        }
+        return eligibilityEngine.tierRank(toTierId) > eligibilityEngine.tierRank(fromTierId)
+                ? SubscriptionEventType.UPGRADE
+                : SubscriptionEventType.DOWNGRADE;
+    }
+
+    // Evict the cached status after commit and route the user's next reads to the primary
+    private void subscriptionChanged(Long userId) {
+        activeSubscriptionCache.invalidate(userId);
+        readYourWrites.recordWrite(userId);
+    }
+
+    private void validateEligibility(User user, PlanPricing pricing) {
+        if (!eligibilityEngine.isEligible(user, pricing.getTier().getId())) {
+            String tierName = pricing.getTier().getName();
+            meterRegistry.counter("firstclub.eligibility.rejections", "tier", tierName).increment();
+            Integer minOrders = pricing.getTier().getMinOrders();
+            String reason = String.format("Requires minimum %d orders or minimum order value", minOrders);
+            throw new UserNotEligibleException(tierName, reason);
+        }
+    }
 
-        return subscriptionRepository.save(current);
+    private void applyPlan(Subscription subscription, PlanPricing pricing) {
+        subscription.setCurrentTier(pricing.getTier());
+        subscription.setCurrentPlan(pricing.getPlanDuration());
+        subscription.setStartDate(LocalDate.now());
+        subscription.setExpiryDate(LocalDate.now().plusDays(pricing.getPlanDuration().getDurationInDays()));
+        subscription.setStatus(SubscriptionStatus.ACTIVE);
     }
 
     /**
      * Cancel an active subscription for a user.
+     * Serialized with other changes to the same user's subscription and retried on conflicts.
      *
      * @param userId The user ID
      * @throws SubscriptionException if no active subscription found
+     * @throws ConcurrentUpdateException if concurrent updates kept conflicting
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void cancelSubscription(Long userId) {
-        Subscription subscription = subscriptionRepository.findByUserIdAndStatus(userId, SubscriptionStatus.ACTIVE)
-                .orElseThrow(() -> new SubscriptionException("No active subscription found for user ID: " + userId));
+        mutationGuard.execute(userId, () -> {
+            Subscription subscription = subscriptionRepository.findByUserIdAndStatus(userId, SubscriptionStatus.ACTIVE)
+                    .orElseThrow(() -> new SubscriptionException("No active subscription found for user ID: " + userId));
 
-        logger.info("Cancelling subscription {} for user {}", subscription.getId(), userId);
-        subscription.setStatus(SubscriptionStatus.CANCELLED);
-        subscriptionRepository.save(subscription);
+            logger.info("Cancelling subscription {} for user {}", subscription.getId(), userId);
+            subscription.setStatus(SubscriptionStatus.CANCELLED);
+            subscriptionRepository.save(subscription);
+            subscriptionChanged(userId);
+            journal.record(SubscriptionEventType.CANCEL, subscription, null);
+            return null;
+        });
     }
 
     /**
      * Get the active subscription for a user.
-     * Includes lazy expiration check - if subscription has expired but status is still ACTIVE,
-     * it will be updated to EXPIRED.
+     * Read-only: subscriptions past their expiry date are reported as expired but not updated here;
+     * SubscriptionExpirySweeper marks them EXPIRED in the background.
+     * Served through ActiveSubscriptionCache, which also remembers users without an active subscription;
+     * cache hits run without a transaction or a database connection.
      *
      * @param userId The user ID
      * @return The active subscription
      * @throws SubscriptionException if no active subscription or subscription has expired
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Subscription getActiveSubscription(Long userId) {
-        // Fetch the subscription marked as active in DB
-        Subscription subscription = subscriptionRepository.findByUserIdAndStatus(userId, SubscriptionStatus.ACTIVE)
+        Subscription subscription = activeSubscriptionCache.get(userId, this::loadActiveSubscription)
                 .orElseThrow(() -> new SubscriptionException("No active subscription found for user ID: " + userId));
 
-        // Lazy expiration check
-        // Handles edge case where subscription expired but hasn't been updated yet
+        // Expired but not yet swept
         if (subscription.getExpiryDate().isBefore(LocalDate.now())) {
-            logger.warn("Found expired subscription {} marked as ACTIVE. Updating status to EXPIRED.",
-                    subscription.getId());
-
-            subscription.setStatus(SubscriptionStatus.EXPIRED);
-            subscriptionRepository.save(subscription);
-
+            lazyExpirations.increment();
             throw new SubscriptionException("Subscription has expired on " + subscription.getExpiryDate());
         }
 
         return subscription;
     }
+
+    private Optional<Subscription> loadActiveSubscription(Long userId) {
+        // Fetch the subscription marked as active in DB, benefits included since cached entries outlive the session.
+        // A lagging replica must not seed the cache with the state from before the user's own change
+        return readYourWrites.read(userId, () ->
+                subscriptionRepository.findWithBenefitsByUserIdAndStatus(userId, SubscriptionStatus.ACTIVE));
+    }
 }
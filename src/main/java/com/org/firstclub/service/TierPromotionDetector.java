@@ -0,0 +1,49 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.dto.UserMetricsChange;
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.service.eligibility.EligibilityEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Detects users who become eligible for a new tier when their order metrics change.
+ * Each change is checked against the eligibility engine's sorted threshold index for the old and the
+ * new metrics (O(log tiers) each), and every tier gained is published to the {@link PromotionFeed}.
+ * Tiers a user stops qualifying for are not reported.
+ */
+@Component
+public class TierPromotionDetector {
+
+    private final EligibilityEngine eligibilityEngine;
+    private final PromotionFeed promotionFeed;
+
+    @Autowired
+    public TierPromotionDetector(EligibilityEngine eligibilityEngine, PromotionFeed promotionFeed) {
+        this.eligibilityEngine = eligibilityEngine;
+        this.promotionFeed = promotionFeed;
+    }
+
+    /**
+     * Check committed metric changes and publish a promotion event for each newly eligible tier.
+     *
+     * @param changes Metrics before and after, one entry per user
+     * @return Number of events published
+     */
+    public int onMetricsChanged(List<UserMetricsChange> changes) {
+        int published = 0;
+        for (UserMetricsChange change : changes) {
+            List<Tier> gained = eligibilityEngine.newlyEligibleTiers(
+                    change.previousOrders(), change.previousSpent(),
+                    change.totalOrders(), change.totalSpent());
+            for (Tier tier : gained) {
+                promotionFeed.publish(change.userId(), tier.getId(), tier.getName(),
+                        change.totalOrders(), change.totalSpent());
+                published++;
+            }
+        }
+        return published;
+    }
+}
@@ -1,11 +1,11 @@
 package com.org.firstclub.service;
 
 import com.org.firstclub.exception.ResourceNotFoundException;
-import com.org.firstclub.repository.TierRepository;
 import com.org.firstclub.repository.UserRepository;
 import com.org.firstclub.repository.entities.Tier;
 import com.org.firstclub.repository.entities.User;
-import com.org.firstclub.utils.CommonUtils;
+import com.org.firstclub.service.eligibility.EligibilityEngine;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,20 +17,24 @@ import java.util.List;
  * Handles tier-related business logic following Single Responsibility Principle.
  */
 @Service
+@Timed(value = "firstclub.service", histogram = true)
 @Transactional
 public class TierService {
     
-    private final TierRepository tierRepository;
+    private final CatalogService catalogService;
     private final UserRepository userRepository;
-    private final CommonUtils commonUtils;
+    private final EligibilityEngine eligibilityEngine;
+    private final ReadYourWritesGuard readYourWrites;
     
     @Autowired
-    public TierService(TierRepository tierRepository, 
+    public TierService(CatalogService catalogService, 
                        UserRepository userRepository, 
-                       CommonUtils commonUtils) {
-        this.tierRepository = tierRepository;
+                       EligibilityEngine eligibilityEngine,
+                       ReadYourWritesGuard readYourWrites) {
+        this.catalogService = catalogService;
         this.userRepository = userRepository;
-        this.commonUtils = commonUtils;
+        this.eligibilityEngine = eligibilityEngine;
+        this.readYourWrites = readYourWrites;
     }
     
     /**
@@ -39,7 +43,7 @@ public class TierService {
      * @return List of all tiers
      */
     public List<Tier> getAllTiers() {
-        return tierRepository.findAll();
+        return catalogService.getSnapshot().getTiers();
     }
     
     /**
@@ -50,7 +54,7 @@ public class TierService {
      * @throws ResourceNotFoundException if tier not found
      */
     public Tier getTierById(Long tierId) {
-        return tierRepository.findById(tierId)
+        return catalogService.getSnapshot().findTier(tierId)
                 .orElseThrow(() -> new ResourceNotFoundException("Tier", tierId));
     }
     
@@ -62,14 +66,15 @@ public class TierService {
      * @return true if user is eligible, false otherwise
      * @throws ResourceNotFoundException if user or tier not found
      */
+    @Transactional(readOnly = true)
     public boolean checkUserEligibility(Long userId, Long tierId) {
-        User user = userRepository.findById(userId)
+        User user = readYourWrites.read(userId, () -> userRepository.findById(userId))
                 .orElseThrow(() -> new ResourceNotFoundException("User", userId));
         
-        Tier tier = tierRepository.findById(tierId)
+        Tier tier = catalogService.getSnapshot().findTier(tierId)
                 .orElseThrow(() -> new ResourceNotFoundException("Tier", tierId));
         
-        return commonUtils.isEligible(user, tier);
+        return eligibilityEngine.isEligible(user, tier.getId());
     }
 }
 
@@ -2,28 +2,42 @@ package com.org.firstclub.service;
 
 import com.org.firstclub.exception.ResourceNotFoundException;
 import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.dto.CursorPage;
 import com.org.firstclub.repository.dto.UserRegistrationRequest;
 import com.org.firstclub.repository.entities.User;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing users.
  * Handles user-related business logic following Single Responsibility Principle.
  */
 @Service
+@Timed(value = "firstclub.service", histogram = true)
 @Transactional
 public class UserService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ReadYourWritesGuard readYourWrites;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, EntityManager entityManager, ReadYourWritesGuard readYourWrites) {
         this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.readYourWrites = readYourWrites;
     }
 
     /**
@@ -39,16 +53,44 @@ public class UserService {
         user.setTotalOrders(0);
         user.setTotalSpent(BigDecimal.ZERO);
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        readYourWrites.recordWrite(saved.getId());
+        return saved;
+    }
+
+    /**
+     * Get one page of users ordered by ID, using keyset (id-cursor) pagination.
+     * The page size is clamped to [1, MAX_PAGE_SIZE].
+     *
+     * @param afterId Return users with an ID greater than this cursor (null for the first page)
+     * @param limit Requested page size
+     * @return The page of users and the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<User> getUsers(Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long cursor = afterId != null ? afterId : 0L;
+
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(pageSize));
+        Long nextCursor = users.size() == pageSize ? users.get(users.size() - 1).getId() : null;
+        return new CursorPage<>(users, nextCursor);
     }
 
     /**
-     * Get all users.
+     * Stream every user, ordered by ID, to the given consumer.
+     * Rows are read with a JDBC fetch size and detached once consumed,
+     * so memory stays flat regardless of table size.
      *
-     * @return List of all users
+     * @param consumer Receives each user in turn
      */
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public void streamUsers(Consumer<User> consumer) {
+        try (Stream<User> users = userRepository.streamAllOrderById()) {
+            users.forEach(user -> {
+                consumer.accept(user);
+                entityManager.detach(user);
+            });
+        }
     }
 
     /**
@@ -58,8 +100,9 @@ public class UserService {
      * @return The user
      * @throws ResourceNotFoundException if user not found
      */
+    @Transactional(readOnly = true)
     public User getUserById(Long userId) {
-        return userRepository.findById(userId)
+        return readYourWrites.read(userId, () -> userRepository.findById(userId))
                 .orElseThrow(() -> new ResourceNotFoundException("User", userId));
     }
 }
@@ -0,0 +1,203 @@
+package com.org.firstclub.service.eligibility;
+
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.repository.entities.User;
+import com.org.firstclub.service.CatalogService;
+import com.org.firstclub.service.CatalogSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Evaluates tier eligibility against every tier in one call.
+ * The registered {@link EligibilityRule}s are compiled once per catalog snapshot into sorted primitive
+ * threshold arrays; evaluation is then a handful of binary searches and bitwise ORs, with no allocation.
+ *
+ * Tiers are ranked from lowest to highest by (minOrders, minOrderValue, id); bit i of a mask is the tier
+ * at rank i. At most 64 tiers are supported.
+ */
+@Component
+public class EligibilityEngine {
+
+    static final int MAX_TIERS = Long.SIZE;
+
+    private final CatalogService catalogService;
+    private final List<EligibilityRule> rules;
+
+    private volatile Compiled compiled;
+
+    @Autowired
+    public EligibilityEngine(CatalogService catalogService, List<EligibilityRule> rules) {
+        this.catalogService = catalogService;
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * Bitmask of every tier the given metrics qualify for (bit i = tier at rank i).
+     */
+    public long eligibleTierMask(int totalOrders, BigDecimal totalSpent) {
+        return compiled().eligibleMask(totalOrders, cents(totalSpent));
+    }
+
+    public long eligibleTierMask(User user) {
+        return eligibleTierMask(ordersOf(user), user.getTotalSpent());
+    }
+
+    /**
+     * Check if a user qualifies for a specific tier.
+     *
+     * @param user The user to check
+     * @param tierId The tier ID
+     * @return true if the user meets any rule for the tier; false if not, or if the tier is unknown
+     */
+    public boolean isEligible(User user, Long tierId) {
+        Compiled current = compiled();
+        Integer rank = current.rankByTierId.get(tierId);
+        if (rank == null) {
+            return false;
+        }
+        return (current.eligibleMask(ordersOf(user), cents(user.getTotalSpent())) & (1L << rank)) != 0;
+    }
+
+    /**
+     * The highest-ranked tier the metrics qualify for, if any.
+     */
+    public Optional<Tier> highestEligibleTier(int totalOrders, BigDecimal totalSpent) {
+        Compiled current = compiled();
+        long mask = current.eligibleMask(totalOrders, cents(totalSpent));
+        if (mask == 0L) {
+            return Optional.empty();
+        }
+        return Optional.of(current.rankedTiers[Long.SIZE - 1 - Long.numberOfLeadingZeros(mask)]);
+    }
+
+    public Optional<Tier> highestEligibleTier(User user) {
+        return highestEligibleTier(ordersOf(user), user.getTotalSpent());
+    }
+
+    /**
+     * Tiers the new metrics qualify for that the previous metrics did not, lowest rank first.
+     * Costs two mask evaluations; returns a shared empty list when nothing changed.
+     */
+    public List<Tier> newlyEligibleTiers(int previousOrders, BigDecimal previousSpent,
+                                         int totalOrders, BigDecimal totalSpent) {
+        Compiled current = compiled();
+        long gained = current.eligibleMask(totalOrders, cents(totalSpent))
+                & ~current.eligibleMask(previousOrders, cents(previousSpent));
+        if (gained == 0L) {
+            return List.of();
+        }
+        List<Tier> tiers = new ArrayList<>(Long.bitCount(gained));
+        for (long remaining = gained; remaining != 0L; remaining &= remaining - 1) {
+            tiers.add(current.rankedTiers[Long.numberOfTrailingZeros(remaining)]);
+        }
+        return tiers;
+    }
+
+    /**
+     * Rank of a tier, 0 for the lowest; -1 if the tier is not in the catalog.
+     */
+    public int tierRank(Long tierId) {
+        Integer rank = compiled().rankByTierId.get(tierId);
+        return rank != null ? rank : -1;
+    }
+
+    /**
+     * Tiers in rank order, lowest first; index i corresponds to bit i of the eligibility masks.
+     */
+    public List<Tier> rankedTiers() {
+        return compiled().rankedTierList;
+    }
+
+    /**
+     * The ranking and thresholds of the current catalog snapshot, fixed for as long as the caller holds it.
+     * Jobs that evaluate many users take one view up front, so a catalog reload halfway through cannot
+     * change what a mask bit means.
+     */
+    public Compiled compiled() {
+        CatalogSnapshot snapshot = catalogService.getSnapshot();
+        Compiled current = compiled;
+        if (current == null || current.snapshot != snapshot) {
+            // Benign race: concurrent callers may compile the same snapshot twice, never a stale one
+            current = new Compiled(snapshot, rules);
+            compiled = current;
+        }
+        return current;
+    }
+
+    private static int ordersOf(User user) {
+        Integer totalOrders = user.getTotalOrders();
+        return totalOrders != null ? totalOrders : 0;
+    }
+
+    // Whole cents, rounded down: spend >= threshold exactly when cents(spend) >= the threshold's cents
+    static long cents(BigDecimal totalSpent) {
+        return totalSpent != null ? totalSpent.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValueExact() : 0L;
+    }
+
+    public static final class Compiled {
+        final CatalogSnapshot snapshot;
+        final Tier[] rankedTiers;
+        final List<Tier> rankedTierList;
+        final Map<Long, Integer> rankByTierId;
+        final EligibilityRule.CompiledRule[] rules;
+
+        Compiled(CatalogSnapshot snapshot, List<EligibilityRule> rules) {
+            List<Tier> ranked = new ArrayList<>(snapshot.getTiers());
+            if (ranked.size() > MAX_TIERS) {
+                throw new IllegalStateException("Eligibility engine supports at most " + MAX_TIERS
+                        + " tiers, catalog has " + ranked.size());
+            }
+            ranked.sort(Comparator
+                    .comparing((Tier tier) -> tier.getMinOrders() != null ? tier.getMinOrders() : 0)
+                    .thenComparing(tier -> tier.getMinOrderValue() != null ? tier.getMinOrderValue() : 0.0)
+                    .thenComparing(Tier::getId));
+
+            this.snapshot = snapshot;
+            this.rankedTiers = ranked.toArray(new Tier[0]);
+            this.rankedTierList = Collections.unmodifiableList(ranked);
+
+            Map<Long, Integer> ranks = new HashMap<>();
+            for (int i = 0; i < rankedTiers.length; i++) {
+                ranks.put(rankedTiers[i].getId(), i);
+            }
+            this.rankByTierId = ranks;
+
+            this.rules = new EligibilityRule.CompiledRule[rules.size()];
+            for (int i = 0; i < rules.size(); i++) {
+                this.rules[i] = rules.get(i).compile(rankedTierList);
+            }
+        }
+
+        /**
+         * Tiers in rank order, lowest first; index i corresponds to bit i of this view's masks.
+         */
+        public List<Tier> rankedTiers() {
+            return rankedTierList;
+        }
+
+        /**
+         * Bitmask of every tier the given metrics qualify for, against this view's thresholds.
+         */
+        public long eligibleTierMask(int totalOrders, BigDecimal totalSpent) {
+            return eligibleMask(totalOrders, cents(totalSpent));
+        }
+
+        long eligibleMask(int totalOrders, long spentCents) {
+            long mask = 0L;
+            for (EligibilityRule.CompiledRule rule : rules) {
+                mask |= rule.eligibleMask(totalOrders, spentCents);
+            }
+            return mask;
+        }
+    }
+}
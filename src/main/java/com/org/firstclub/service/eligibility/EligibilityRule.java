@@ -0,0 +1,33 @@
+package com.org.firstclub.service.eligibility;
+
+import com.org.firstclub.repository.entities.Tier;
+
+import java.util.List;
+
+/**
+ * A single eligibility criterion (e.g. minimum orders, minimum spend).
+ * Rules are compiled once per catalog snapshot into a {@link CompiledRule} that evaluates a
+ * user's metrics against every tier at once, using primitive arrays and no allocation.
+ * Spend is passed in whole cents so thresholds compare exactly, as BigDecimal comparisons do.
+ *
+ * A user qualifies for a tier when ANY registered rule admits them.
+ */
+public interface EligibilityRule {
+
+    /**
+     * Compile this rule for the given tiers.
+     *
+     * @param rankedTiers Tiers ordered from lowest to highest; tier i is bit i of the returned masks
+     * @return Evaluator for this rule
+     */
+    CompiledRule compile(List<Tier> rankedTiers);
+
+    @FunctionalInterface
+    interface CompiledRule {
+
+        /**
+         * @return Bitmask of the tiers this rule admits for the given metrics
+         */
+        long eligibleMask(int totalOrders, long spentCents);
+    }
+}
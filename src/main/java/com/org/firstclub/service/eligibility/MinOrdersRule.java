@@ -0,0 +1,26 @@
+package com.org.firstclub.service.eligibility;
+
+import com.org.firstclub.repository.entities.Tier;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Admits a user to every tier whose minimum order count they have reached.
+ */
+@Component
+@Order(1)
+public class MinOrdersRule implements EligibilityRule {
+
+    @Override
+    public CompiledRule compile(List<Tier> rankedTiers) {
+        long[] thresholds = new long[rankedTiers.size()];
+        for (int i = 0; i < thresholds.length; i++) {
+            Integer minOrders = rankedTiers.get(i).getMinOrders();
+            thresholds[i] = minOrders != null ? minOrders : 0;
+        }
+        ThresholdIndex index = new ThresholdIndex(thresholds);
+        return (totalOrders, spentCents) -> index.maskAtOrBelow(totalOrders);
+    }
+}
@@ -0,0 +1,33 @@
+package com.org.firstclub.service.eligibility;
+
+import com.org.firstclub.repository.entities.Tier;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Admits a user to every tier whose minimum order value (total spend) they have reached.
+ */
+@Component
+@Order(2)
+public class MinSpendRule implements EligibilityRule {
+
+    @Override
+    public CompiledRule compile(List<Tier> rankedTiers) {
+        long[] thresholds = new long[rankedTiers.size()];
+        for (int i = 0; i < thresholds.length; i++) {
+            Double minOrderValue = rankedTiers.get(i).getMinOrderValue();
+            thresholds[i] = minOrderValue != null ? thresholdCents(minOrderValue) : 0L;
+        }
+        ThresholdIndex index = new ThresholdIndex(thresholds);
+        return (totalOrders, spentCents) -> index.maskAtOrBelow(spentCents);
+    }
+
+    // Smallest whole-cent spend that meets the threshold, read as decimal like CommonUtils does
+    static long thresholdCents(double minOrderValue) {
+        return BigDecimal.valueOf(minOrderValue).movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+    }
+}
@@ -0,0 +1,54 @@
+package com.org.firstclub.service.eligibility;
+
+import java.util.Arrays;
+
+/**
+ * Sorted thresholds with cumulative tier bitmasks.
+ * For a metric value v, {@link #maskAtOrBelow(long)} returns the bits of every tier whose threshold
+ * is at most v, found by binary search over a primitive array.
+ */
+final class ThresholdIndex {
+
+    private final long[] thresholds;     // ascending
+    private final long[] cumulativeMask; // cumulativeMask[i] = tiers with thresholds[0..i]
+
+    ThresholdIndex(long[] thresholdByRank) {
+        int n = thresholdByRank.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(thresholdByRank[a], thresholdByRank[b]));
+
+        this.thresholds = new long[n];
+        this.cumulativeMask = new long[n];
+        long mask = 0L;
+        for (int i = 0; i < n; i++) {
+            thresholds[i] = thresholdByRank[order[i]];
+            mask |= 1L << order[i];
+            cumulativeMask[i] = mask;
+        }
+    }
+
+    long maskAtOrBelow(long value) {
+        int count = countAtOrBelow(value);
+        return count == 0 ? 0L : cumulativeMask[count - 1];
+    }
+
+    /**
+     * @return Number of thresholds less than or equal to value
+     */
+    int countAtOrBelow(long value) {
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,132 @@
+package com.org.firstclub.service.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+/**
+ * On-disk layout of the subscription journal, shared by the writer and the reader.
+ *
+ * The journal is a directory of segment files named after the sequence of their first event
+ * (00000000000000000001.journal, ...). A segment is a run of fixed-size records; an all-zero slot
+ * marks the end of the written part. Record layout, big-endian:
+ *
+ * <pre>
+ *  0  int   CRC32C of bytes 4..71
+ *  4  byte  format version
+ *  5  byte  event type code
+ *  6  short reserved
+ *  8  long  sequence
+ * 16  long  timestamp (epoch millis)
+ * 24  long  user ID
+ * 32  long  subscription ID
+ * 40  long  tier ID
+ * 48  long  previous tier ID (0 = none)
+ * 56  long  plan duration ID
+ * 64  int   start date (epoch day)
+ * 68  int   expiry date (epoch day)
+ * </pre>
+ *
+ * The CRC is written last, so a reader (or recovery after a crash) never accepts a half-written record.
+ */
+final class JournalFormat {
+
+    static final int RECORD_SIZE = 72;
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final String LOCK_FILE = "journal.lock";
+
+    private static final byte VERSION = 1;
+    private static final int BODY_OFFSET = 4;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final long NONE = 0L;
+
+    private JournalFormat() {
+    }
+
+    static String segmentName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * First sequence of a segment file, or -1 if the file is not a segment.
+     */
+    static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static void write(ByteBuffer buffer, int offset, long sequence, long timestampMillis, SubscriptionEventType type,
+                      long userId, long subscriptionId, long tierId, Long previousTierId, long planDurationId,
+                      LocalDate startDate, LocalDate expiryDate) {
+        buffer.put(offset + 4, VERSION);
+        buffer.put(offset + 5, type.code());
+        buffer.putShort(offset + 6, (short) 0);
+        buffer.putLong(offset + 8, sequence);
+        buffer.putLong(offset + 16, timestampMillis);
+        buffer.putLong(offset + 24, userId);
+        buffer.putLong(offset + 32, subscriptionId);
+        buffer.putLong(offset + 40, tierId);
+        buffer.putLong(offset + 48, previousTierId != null ? previousTierId : NONE);
+        buffer.putLong(offset + 56, planDurationId);
+        buffer.putInt(offset + 64, (int) startDate.toEpochDay());
+        buffer.putInt(offset + 68, (int) expiryDate.toEpochDay());
+        buffer.putInt(offset, checksum(buffer, offset));
+    }
+
+    /**
+     * Decode the record at offset if it is complete and has the expected sequence.
+     *
+     * @return The event, or null at the end of the written part (empty, torn or stale slot)
+     */
+    static SubscriptionEvent read(ByteBuffer buffer, int offset, long expectedSequence) {
+        if (buffer.getLong(offset + SEQUENCE_OFFSET) != expectedSequence
+                || buffer.getInt(offset) != checksum(buffer, offset)
+                || buffer.get(offset + 4) != VERSION) {
+            return null;
+        }
+        SubscriptionEventType type = SubscriptionEventType.fromCode(buffer.get(offset + 5));
+        if (type == null) {
+            return null;
+        }
+        long previousTierId = buffer.getLong(offset + 48);
+        return new SubscriptionEvent(
+                expectedSequence,
+                Instant.ofEpochMilli(buffer.getLong(offset + 16)),
+                type,
+                buffer.getLong(offset + 24),
+                buffer.getLong(offset + 32),
+                buffer.getLong(offset + 40),
+                previousTierId != NONE ? previousTierId : null,
+                buffer.getLong(offset + 56),
+                LocalDate.ofEpochDay(buffer.getInt(offset + 64)),
+                LocalDate.ofEpochDay(buffer.getInt(offset + 68)));
+    }
+
+    /**
+     * True if the slot holds anything, i.e. must be cleared before it can be reused.
+     */
+    static boolean isWritten(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset) != 0 || buffer.getLong(offset + SEQUENCE_OFFSET) != 0;
+    }
+
+    static void clear(ByteBuffer buffer, int offset) {
+        for (int i = 0; i < RECORD_SIZE; i += Long.BYTES) {
+            buffer.putLong(offset + i, 0L);
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + BODY_OFFSET, RECORD_SIZE - BODY_OFFSET));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,24 @@
+package com.org.firstclub.service.journal;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One subscription state change as stored in the journal: the subscription's state after the change,
+ * plus the tier it had before for upgrades and downgrades.
+ *
+ * @param sequence Position in the journal, starting at 1 and increasing by one per event
+ * @param timestamp When the change was committed (millisecond precision)
+ * @param previousTierId Tier before the change, null if not applicable
+ */
+public record SubscriptionEvent(long sequence,
+                                Instant timestamp,
+                                SubscriptionEventType type,
+                                Long userId,
+                                Long subscriptionId,
+                                Long tierId,
+                                Long previousTierId,
+                                Long planDurationId,
+                                LocalDate startDate,
+                                LocalDate expiryDate) {
+}
@@ -0,0 +1,39 @@
+package com.org.firstclub.service.journal;
+
+/**
+ * Kinds of subscription state change recorded in the journal. The codes are stored on disk and
+ * must never be renumbered.
+ */
+public enum SubscriptionEventType {
+
+    /** New subscription, or reactivation of a cancelled or expired one. */
+    SUBSCRIBE(1),
+    /** Active subscription moved to a higher-ranked tier. */
+    UPGRADE(2),
+    /** Active subscription moved to a lower-ranked tier. */
+    DOWNGRADE(3),
+    /** Active subscription restarted on the same tier, possibly with another duration. */
+    RENEW(4),
+    CANCEL(5),
+    /** Marked EXPIRED by the expiry sweeper. */
+    EXPIRE(6);
+
+    private final byte code;
+
+    SubscriptionEventType(int code) {
+        this.code = (byte) code;
+    }
+
+    byte code() {
+        return code;
+    }
+
+    static SubscriptionEventType fromCode(byte code) {
+        for (SubscriptionEventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,346 @@
+package com.org.firstclub.service.journal;
+
+import com.org.firstclub.repository.entities.Subscription;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of subscription state changes (subscribe, upgrade, downgrade, renew, cancel,
+ * expire), for audit and analytics; see {@link JournalFormat} for the file layout and
+ * {@link SubscriptionJournalReader} to replay or tail it.
+ *
+ * Events are written into memory-mapped segment files. An append only copies one 72-byte record into
+ * the mapped buffer, under a short lock; it is in the OS page cache from then on and survives a crash
+ * of this process. {@link #flush()} runs every flush interval and forces everything appended since
+ * the previous flush to disk in one go (group commit), so events are durable against a machine crash
+ * within about one interval.
+ *
+ * Events are recorded after the changing transaction commits, so rolled-back changes never appear.
+ * The directory is locked while open; a second instance pointed at the same directory fails to start.
+ */
+@Component
+public class SubscriptionJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionJournal.class);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentRecords;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private FileChannel lockChannel;
+    private FileLock directoryLock;
+    private Segment current; // guarded by appendLock
+    private final List<Segment> unflushed = new ArrayList<>(); // rolled segments not forced yet, guarded by appendLock
+    private long nextSequence; // guarded by appendLock
+    private boolean closed; // guarded by appendLock
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private volatile long durableSequence;
+
+    @Autowired
+    public SubscriptionJournal(@Value("${firstclub.journal.enabled:true}") boolean enabled,
+                               @Value("${firstclub.journal.directory:data/journal}") Path directory,
+                               @Value("${firstclub.journal.segment-size-mb:64}") int segmentSizeMb) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentRecords = (int) (segmentSizeMb * 1024L * 1024L / JournalFormat.RECORD_SIZE);
+        if (enabled) {
+            open();
+        }
+    }
+
+    SubscriptionJournal(Path directory, int segmentRecords) {
+        this.enabled = true;
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        open();
+    }
+
+    /**
+     * Record a change of the given subscription, after the current transaction commits if there is one.
+     * The subscription's current state is captured now.
+     *
+     * @param type The kind of change
+     * @param subscription The subscription after the change, with its ID assigned
+     * @param previousTierId The tier before the change, or null
+     */
+    public void record(SubscriptionEventType type, Subscription subscription, Long previousTierId) {
+        record(type, subscription.getUser().getId(), subscription.getId(), subscription.getCurrentTier().getId(),
+                previousTierId, subscription.getCurrentPlan().getId(),
+                subscription.getStartDate(), subscription.getExpiryDate());
+    }
+
+    /**
+     * Record a change, after the current transaction commits if there is one.
+     */
+    public void record(SubscriptionEventType type, Long userId, Long subscriptionId, Long tierId, Long previousTierId,
+                       Long planDurationId, LocalDate startDate, LocalDate expiryDate) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(type, userId, subscriptionId, tierId, previousTierId, planDurationId, startDate, expiryDate);
+                }
+            });
+        } else {
+            append(type, userId, subscriptionId, tierId, previousTierId, planDurationId, startDate, expiryDate);
+        }
+    }
+
+    /**
+     * Append an event now.
+     *
+     * @return The event's sequence, or -1 if the journal is disabled or closed
+     */
+    long append(SubscriptionEventType type, long userId, long subscriptionId, long tierId, Long previousTierId,
+                long planDurationId, LocalDate startDate, LocalDate expiryDate) {
+        if (!enabled) {
+            return -1;
+        }
+        long timestamp = System.currentTimeMillis();
+        appendLock.lock();
+        try {
+            if (closed) {
+                logger.warn("Journal closed, dropping {} event for user {}", type, userId);
+                return -1;
+            }
+            if (current.count == segmentRecords) {
+                unflushed.add(current);
+                current = createSegment(nextSequence);
+            }
+            long sequence = nextSequence++;
+            JournalFormat.write(current.buffer, current.count * JournalFormat.RECORD_SIZE, sequence, timestamp, type,
+                    userId, subscriptionId, tierId, previousTierId, planDurationId, startDate, expiryDate);
+            current.count++;
+            appended.increment();
+            return sequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Force every event appended so far to disk: one msync per dirty segment, however many events
+     * arrived since the last flush.
+     */
+    @Scheduled(fixedDelayString = "${firstclub.journal.flush-interval-ms:20}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        List<Segment> toForce;
+        long lastSequence;
+        appendLock.lock();
+        try {
+            if (closed || nextSequence - 1 == durableSequence) {
+                return;
+            }
+            toForce = new ArrayList<>(unflushed);
+            toForce.add(current);
+            unflushed.clear();
+            lastSequence = nextSequence - 1;
+        } finally {
+            appendLock.unlock();
+        }
+
+        // Outside the lock: appends continue into the mapped buffer while it is written out
+        for (Segment segment : toForce) {
+            segment.buffer.force();
+        }
+        for (int i = 0; i < toForce.size() - 1; i++) {
+            closeQuietly(toForce.get(i).channel);
+        }
+        durableSequence = lastSequence;
+        flushes.increment();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Segment segment : unflushed) {
+                segment.buffer.force();
+                closeQuietly(segment.channel);
+            }
+            current.buffer.force();
+            closeQuietly(current.channel);
+            directoryLock.release();
+            lockChannel.close();
+            logger.info("Subscription journal closed at sequence {}", nextSequence - 1);
+        } catch (IOException e) {
+            logger.warn("Failed to release journal lock in {}", directory, e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(directory.resolve(JournalFormat.LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                directoryLock = lockChannel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                directoryLock = null;
+            }
+            if (directoryLock == null) {
+                lockChannel.close();
+                throw new IllegalStateException("Subscription journal " + directory.toAbsolutePath()
+                        + " is in use by another process");
+            }
+
+            Long lastFirstSequence = null;
+            try (Stream<Path> files = Files.list(directory)) {
+                lastFirstSequence = files.map(JournalFormat::firstSequence)
+                        .filter(first -> first > 0)
+                        .max(Long::compare)
+                        .orElse(null);
+            }
+            if (lastFirstSequence == null) {
+                nextSequence = 1;
+                current = createSegment(1);
+            } else {
+                current = recover(lastFirstSequence);
+            }
+            durableSequence = nextSequence - 1;
+            logger.info("Subscription journal open in {} at sequence {}", directory.toAbsolutePath(), nextSequence - 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open subscription journal in " + directory, e);
+        }
+    }
+
+    // Find the end of the last segment; clear a torn record and anything after it, which an
+    // out-of-order page write before a crash may have left behind
+    private Segment recover(long firstSequence) throws IOException {
+        Path file = directory.resolve(JournalFormat.segmentName(firstSequence));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int capacity = (int) (channel.size() / JournalFormat.RECORD_SIZE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * JournalFormat.RECORD_SIZE);
+
+        int count = 0;
+        while (count < capacity
+                && JournalFormat.read(buffer, count * JournalFormat.RECORD_SIZE, firstSequence + count) != null) {
+            count++;
+        }
+        int cleared = 0;
+        for (int slot = count; slot < capacity; slot++) {
+            if (JournalFormat.isWritten(buffer, slot * JournalFormat.RECORD_SIZE)) {
+                JournalFormat.clear(buffer, slot * JournalFormat.RECORD_SIZE);
+                cleared++;
+            }
+        }
+        if (cleared > 0) {
+            buffer.force();
+            logger.warn("Subscription journal segment {} had {} incomplete record(s) after sequence {}; cleared",
+                    file.getFileName(), cleared, firstSequence + count - 1);
+        }
+
+        nextSequence = firstSequence + count;
+        if (count == capacity) {
+            channel.close();
+            return createSegment(nextSequence);
+        }
+        return new Segment(channel, buffer, count);
+    }
+
+    private Segment createSegment(long firstSequence) {
+        Path file = directory.resolve(JournalFormat.segmentName(firstSequence));
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // Mapping past the end grows the file (sparse) to the full segment size
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    (long) segmentRecords * JournalFormat.RECORD_SIZE);
+            logger.debug("Created journal segment {}", file.getFileName());
+            return new Segment(channel, buffer, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create journal segment " + file, e);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close journal segment", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Events appended since startup.
+     */
+    public long appended() {
+        return appended.sum();
+    }
+
+    /**
+     * Group commits (forces to disk) since startup.
+     */
+    public long flushes() {
+        return flushes.sum();
+    }
+
+    /**
+     * Highest sequence forced to disk.
+     */
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    private static final class Segment {
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int count;
+
+        Segment(FileChannel channel, MappedByteBuffer buffer, int count) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.count = count;
+        }
+    }
+}
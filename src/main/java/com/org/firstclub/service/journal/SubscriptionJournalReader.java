@@ -0,0 +1,148 @@
+package com.org.firstclub.service.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads a subscription journal directory, for audit and analytics jobs. Works on a journal that is
+ * being written at the same time, by this or another process: reading stops at the last complete
+ * record and a {@link Cursor} picks up from there on its next poll.
+ *
+ * <pre>
+ * SubscriptionJournalReader reader = new SubscriptionJournalReader(Path.of("data/journal"));
+ * reader.replay(1, event -> audit(event));            // everything written so far
+ *
+ * SubscriptionJournalReader.Cursor tail = reader.cursor(reader.replay(1, this::load) + 1);
+ * while (running) {                                  // then follow new events
+ *     if (tail.poll(this::load) == 0) Thread.sleep(100);
+ * }
+ * </pre>
+ */
+public class SubscriptionJournalReader {
+
+    private final Path directory;
+
+    public SubscriptionJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Pass every event from the given sequence up to the current end of the journal to the consumer.
+     *
+     * @param fromSequence First sequence to read (1 for the whole journal)
+     * @param consumer Receives the events in sequence order
+     * @return Sequence of the last event read, or fromSequence - 1 if there was none
+     */
+    public long replay(long fromSequence, Consumer<SubscriptionEvent> consumer) {
+        Cursor cursor = cursor(fromSequence);
+        cursor.poll(consumer);
+        return cursor.nextSequence() - 1;
+    }
+
+    /**
+     * A cursor positioned at the given sequence, for tailing the journal.
+     */
+    public Cursor cursor(long fromSequence) {
+        return new Cursor(Math.max(1, fromSequence));
+    }
+
+    // First sequence of the segment that holds the given sequence, or -1 if there is none yet
+    private long segmentFor(long sequence) {
+        if (!Files.isDirectory(directory)) {
+            return -1;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.mapToLong(JournalFormat::firstSequence)
+                    .filter(first -> first > 0 && first <= sequence)
+                    .max()
+                    .orElse(-1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list journal directory " + directory, e);
+        }
+    }
+
+    private MappedByteBuffer map(long firstSequence) {
+        Path file = directory.resolve(JournalFormat.segmentName(firstSequence));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size() / JournalFormat.RECORD_SIZE * JournalFormat.RECORD_SIZE;
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map journal segment " + file, e);
+        }
+    }
+
+    /**
+     * Reading position in the journal; not thread-safe.
+     */
+    public final class Cursor {
+
+        private long nextSequence;
+        private long segmentFirst = -1;
+        private MappedByteBuffer segment;
+
+        private Cursor(long nextSequence) {
+            this.nextSequence = nextSequence;
+        }
+
+        /**
+         * Read every event written since the last poll.
+         *
+         * @param consumer Receives the events in sequence order
+         * @return Number of events read; 0 if nothing new has been written
+         */
+        public int poll(Consumer<SubscriptionEvent> consumer) {
+            int read = 0;
+            while (true) {
+                if (segment == null || slot() >= capacity()) {
+                    if (!openSegment()) {
+                        return read;
+                    }
+                }
+                SubscriptionEvent event = JournalFormat.read(segment, slot() * JournalFormat.RECORD_SIZE, nextSequence);
+                if (event == null) {
+                    return read;
+                }
+                consumer.accept(event);
+                nextSequence++;
+                read++;
+            }
+        }
+
+        /**
+         * Sequence of the next event this cursor will read.
+         */
+        public long nextSequence() {
+            return nextSequence;
+        }
+
+        private int slot() {
+            return (int) (nextSequence - segmentFirst);
+        }
+
+        private int capacity() {
+            return segment.capacity() / JournalFormat.RECORD_SIZE;
+        }
+
+        // Map the segment holding nextSequence; false if it has not been written yet
+        private boolean openSegment() {
+            long first = segmentFor(nextSequence);
+            if (first < 0 || first == segmentFirst) {
+                return false;
+            }
+            MappedByteBuffer mapped = map(first);
+            if (nextSequence - first >= mapped.capacity() / JournalFormat.RECORD_SIZE) {
+                return false;
+            }
+            segmentFirst = first;
+            segment = mapped;
+            return true;
+        }
+    }
+}
@@ -16,14 +16,15 @@ public class CommonUtils {
     /**
      * Checks if a user qualifies for a specific target tier based on defined criteria.
      * User is eligible if they meet EITHER the minimum orders OR minimum order value requirement.
+     * Services use the compiled EligibilityEngine instead; this per-call check is kept as the reference
+     * implementation and benchmark baseline.
      *
      * @param user The user to check
      * @param targetTier The tier to check eligibility for
      * @return true if user meets eligibility criteria, false otherwise
      */
     public boolean isEligible(User user, Tier targetTier) {
-        // Extensible design: This could be refactored to use Strategy pattern
-        // with a list of 'EligibilityRule' interfaces for more complex criteria
+        // Pluggable criteria live in service.eligibility as EligibilityRule implementations
         boolean meetsOrderRequirement = user.getTotalOrders() >= targetTier.getMinOrders();
         boolean meetsValueRequirement = user.getTotalSpent()
                 .compareTo(BigDecimal.valueOf(targetTier.getMinOrderValue())) >= 0;
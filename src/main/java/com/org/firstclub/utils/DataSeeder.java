@@ -1,26 +1,36 @@
 package com.org.firstclub.utils;
 
+import com.org.firstclub.config.ReplicaRouting;
 import com.org.firstclub.repository.PlanDurationRepository;
 import com.org.firstclub.repository.PlanPricingRepository;
 import com.org.firstclub.repository.TierRepository;
 import com.org.firstclub.repository.entities.PlanDuration;
 import com.org.firstclub.repository.entities.PlanPricing;
 import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.service.CatalogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
+@Order(1) // Before SyntheticDataGenerator, which needs the catalog
 public class DataSeeder implements CommandLineRunner {
 
     @Autowired
     private TierRepository tierRepo;
     @Autowired private PlanDurationRepository durationRepo;
     @Autowired private PlanPricingRepository pricingRepo;
+    @Autowired private CatalogService catalogService;
+    @Autowired private PlatformTransactionManager transactionManager;
 
     // Constants for Benefit Keys (To avoid typos)
     private static final String BENEFIT_FREE_DELIVERY = "FREE_DELIVERY";
@@ -31,7 +41,8 @@ public class DataSeeder implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
 // 1. Guard Clause: Don't run if DB is already populated
-        if (tierRepo.count() > 0) {
+        // Checked on the primary: an empty or lagging read replica would seed the catalog twice
+        if (ReplicaRouting.onPrimary(tierRepo::count) > 0) {
             System.out.println("⚡ Database already seeded. Skipping initialization.");
             return;
         }
@@ -41,9 +52,9 @@ public class DataSeeder implements CommandLineRunner {
         // ==========================================
         // STEP 1: Create Plan Durations (Time)
         // ==========================================
-        PlanDuration monthly = createDuration("Monthly", 30);
-        PlanDuration quarterly = createDuration("Quarterly", 90);
-        PlanDuration yearly = createDuration("Yearly", 365);
+        PlanDuration monthly = duration("Monthly", 30);
+        PlanDuration quarterly = duration("Quarterly", 90);
+        PlanDuration yearly = duration("Yearly", 365);
 
         // ==========================================
         // STEP 2: Create Tiers with Logic & Benefits
@@ -55,7 +66,7 @@ public class DataSeeder implements CommandLineRunner {
         silverBenefits.put(BENEFIT_DISCOUNT_PCT, "0"); // No extra discount
 
         // Silver Logic: Open to everyone (0 orders)
-        Tier silver = createTier("Silver", 0, 0.0, silverBenefits);
+        Tier silver = tier("Silver", 0, 0.0, silverBenefits);
 
 
         // --- GOLD TIER (Mid Level) ---
@@ -65,7 +76,7 @@ public class DataSeeder implements CommandLineRunner {
         goldBenefits.put(BENEFIT_EARLY_ACCESS, "24"); // 24 hours early access
 
         // Gold Logic: Need 5 orders OR spent $500
-        Tier gold = createTier("Gold", 5, 500.00, goldBenefits);
+        Tier gold = tier("Gold", 5, 500.00, goldBenefits);
 
 
         // --- PLATINUM TIER (VIP Level) ---
@@ -76,26 +87,41 @@ public class DataSeeder implements CommandLineRunner {
         platinumBenefits.put(BENEFIT_PRIORITY_SUPPORT, "true"); // Dedicated agent
 
         // Platinum Logic: Need 20 orders OR spent $2000
-        Tier platinum = createTier("Platinum", 20, 2000.00, platinumBenefits);
+        Tier platinum = tier("Platinum", 20, 2000.00, platinumBenefits);
 
         // ==========================================
         // STEP 3: Create Pricing (The 3x3 Matrix)
         // ==========================================
 
+        List<PlanPricing> pricings = new ArrayList<>();
+
         // Silver Prices
-        createPricing(silver, monthly, "9.99");
-        createPricing(silver, quarterly, "24.99");  // Slight savings
-        createPricing(silver, yearly, "99.99");     // ~2 months free
+        pricings.add(pricing(silver, monthly, "9.99"));
+        pricings.add(pricing(silver, quarterly, "24.99"));  // Slight savings
+        pricings.add(pricing(silver, yearly, "99.99"));     // ~2 months free
 
         // Gold Prices
-        createPricing(gold, monthly, "19.99");
-        createPricing(gold, quarterly, "49.99");
-        createPricing(gold, yearly, "179.99");
+        pricings.add(pricing(gold, monthly, "19.99"));
+        pricings.add(pricing(gold, quarterly, "49.99"));
+        pricings.add(pricing(gold, yearly, "179.99"));
 
         // Platinum Prices
-        createPricing(platinum, monthly, "49.99");
-        createPricing(platinum, quarterly, "129.99");
-        createPricing(platinum, yearly, "499.99");
+        pricings.add(pricing(platinum, monthly, "49.99"));
+        pricings.add(pricing(platinum, quarterly, "129.99"));
+        pricings.add(pricing(platinum, yearly, "499.99"));
+
+        // ==========================================
+        // STEP 4: Save everything in one transaction
+        // ==========================================
+        // One commit instead of one per row; tier benefits go out as a single JDBC batch
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            durationRepo.saveAll(List.of(monthly, quarterly, yearly));
+            tierRepo.saveAll(List.of(silver, gold, platinum));
+            pricingRepo.saveAll(pricings);
+        });
+
+        // Publish the freshly seeded catalog to readers
+        catalogService.reload();
 
         System.out.println("✅ Database Seeding Completed Successfully!");
     }
@@ -104,27 +130,27 @@ public class DataSeeder implements CommandLineRunner {
     // HELPER METHODS (Keeps the main logic clean)
     // ==========================================
 
-    private PlanDuration createDuration(String name, int days) {
+    private PlanDuration duration(String name, int days) {
         PlanDuration duration = new PlanDuration();
         duration.setName(name);
         duration.setDurationInDays(days);
-        return durationRepo.save(duration);
+        return duration;
     }
 
-    private Tier createTier(String name, Integer minOrders, Double minSpend, Map<String, String> benefits) {
+    private Tier tier(String name, Integer minOrders, Double minSpend, Map<String, String> benefits) {
         Tier tier = new Tier();
         tier.setName(name);
         tier.setMinOrders(minOrders);
         tier.setMinOrderValue(minSpend);
         tier.setBenefits(benefits); // Assumes you used @ElementCollection in Tier entity
-        return tierRepo.save(tier);
+        return tier;
     }
 
-    private void createPricing(Tier tier, PlanDuration duration, String priceStr) {
+    private PlanPricing pricing(Tier tier, PlanDuration duration, String priceStr) {
         PlanPricing pricing = new PlanPricing();
         pricing.setTier(tier);
         pricing.setPlanDuration(duration);
         pricing.setPrice(new BigDecimal(priceStr));
-        pricingRepo.save(pricing);
+        return pricing;
     }
 }
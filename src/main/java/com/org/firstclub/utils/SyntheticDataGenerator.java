@@ -0,0 +1,294 @@
+package com.org.firstclub.utils;
+
+import com.org.firstclub.repository.entities.PlanDuration;
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.repository.enums.SubscriptionStatus;
+import com.org.firstclub.service.CatalogService;
+import com.org.firstclub.service.eligibility.EligibilityEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills the database with synthetic users and subscriptions for performance testing
+ * (--spring.profiles.active=synthetic-data, or --firstclub.synthetic-data.enabled=true).
+ *
+ * Rows are written with batched JDBC inserts, one transaction per batch, bypassing JPA. The same seed,
+ * counts and as-of date always produce the same rows, whatever the batch size.
+ *
+ * Distributions:
+ *   total orders     15% never ordered; the rest log-normal, median 5, long tail
+ *   total spent      orders x a per-user log-normal average order value (median ~$36)
+ *   subscriptions    spread evenly over the users, at most one per user; tier is one the user qualifies
+ *                    for (mostly the highest), plans weighted towards shorter durations
+ *   status           75% ACTIVE (2% of those already past expiry, for the expiry sweeper),
+ *                    15% EXPIRED, 10% CANCELLED, with dates over the two years before the as-of date
+ */
+@Component
+@Order(2)
+@ConditionalOnProperty(name = "firstclub.synthetic-data.enabled", havingValue = "true")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String INSERT_USER = "insert into app_user (id, email, name, total_orders, total_spent)"
+            + " values (?, ?, ?, ?, ?)";
+    private static final String INSERT_SUBSCRIPTION = "insert into subscription (id, user_id, current_tier_id,"
+            + " current_plan_id, start_date, expiry_date, status, version) values (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final int HISTORY_DAYS = 730;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogService catalogService;
+    private final EligibilityEngine eligibilityEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final int users;
+    private final int subscriptions;
+    private final long seed;
+    private final int batchSize;
+    private final String asOf;
+
+    @Autowired
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  CatalogService catalogService,
+                                  EligibilityEngine eligibilityEngine,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${firstclub.synthetic-data.users:100000}") int users,
+                                  @Value("${firstclub.synthetic-data.subscriptions:60000}") int subscriptions,
+                                  @Value("${firstclub.synthetic-data.seed:42}") long seed,
+                                  @Value("${firstclub.synthetic-data.batch-size:5000}") int batchSize,
+                                  @Value("${firstclub.synthetic-data.as-of:}") String asOf) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogService = catalogService;
+        this.eligibilityEngine = eligibilityEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.users = users;
+        this.subscriptions = subscriptions;
+        this.seed = seed;
+        this.batchSize = batchSize;
+        this.asOf = asOf;
+    }
+
+    @Override
+    public void run(String... args) {
+        // Runs after DataSeeder; a database that already has users (file URL, restart) is left alone
+        Long existing = jdbcTemplate.queryForObject("select count(*) from app_user", Long.class);
+        if (existing != null && existing > 0) {
+            logger.info("Synthetic data skipped: database already has {} users", existing);
+            return;
+        }
+        generate(users, subscriptions, seed, asOf.isBlank() ? LocalDate.now() : LocalDate.parse(asOf));
+    }
+
+    /**
+     * Insert synthetic users and subscriptions after any existing rows.
+     *
+     * @param userCount Users to create
+     * @param subscriptionCount Subscriptions to create, at most one per user
+     * @param seed Random seed; the same seed and counts give the same rows
+     * @param today Date the subscription dates are relative to
+     * @return Id of the first user created
+     */
+    long generate(int userCount, int subscriptionCount, long seed, LocalDate today) {
+        if (subscriptionCount > userCount) {
+            throw new IllegalArgumentException("Cannot create " + subscriptionCount + " subscriptions for "
+                    + userCount + " users: a user has at most one subscription");
+        }
+        Plans plans = new Plans(eligibilityEngine.compiled(), catalogService.getSnapshot().getDurations());
+        long firstUserId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 1 from app_user", Long.class);
+        // Past any block the pooled subscription id generator may already hold (allocation size 50)
+        long firstSubscriptionId = jdbcTemplate.queryForObject("select next value for subscription_seq", Long.class) + 50;
+
+        logger.info("Generating {} users and {} subscriptions (seed {}, batch size {})",
+                userCount, subscriptionCount, seed, batchSize);
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        List<UserRow> userBatch = new ArrayList<>(batchSize);
+        List<SubscriptionRow> subscriptionBatch = new ArrayList<>(batchSize);
+        long subscriptionId = firstSubscriptionId;
+        int remainingSubscriptions = subscriptionCount;
+        long nextProgress = 1_000_000;
+        for (int i = 0; i < userCount; i++) {
+            UserRow user = user(random, firstUserId + i);
+            userBatch.add(user);
+            // Selection sampling: exactly subscriptionCount users, spread evenly over the id range
+            if (random.nextInt(userCount - i) < remainingSubscriptions) {
+                subscriptionBatch.add(subscription(random, subscriptionId++, user, plans, today));
+                remainingSubscriptions--;
+            }
+            if (userBatch.size() == batchSize) {
+                insert(userBatch, subscriptionBatch);
+                if (i + 1 >= nextProgress) {
+                    logger.info("Synthetic data: {} of {} users written", i + 1, userCount);
+                    nextProgress += 1_000_000;
+                }
+            }
+        }
+        insert(userBatch, subscriptionBatch);
+
+        // Later inserts through JPA continue after the generated ids
+        jdbcTemplate.execute("alter table app_user alter column id restart with " + (firstUserId + userCount));
+        jdbcTemplate.execute("alter sequence subscription_seq restart with " + (subscriptionId + 50));
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Generated {} users and {} subscriptions in {} ms ({} rows/s)", userCount, subscriptionCount,
+                millis, (userCount + subscriptionCount) * 1000L / Math.max(millis, 1));
+        return firstUserId;
+    }
+
+    private static UserRow user(SplittableRandom random, long id) {
+        int orders = 0;
+        long spentCents = 0;
+        if (random.nextDouble() >= 0.15) {
+            orders = (int) Math.min(10_000, Math.max(1, Math.round(Math.exp(1.6 + gaussian(random)))));
+            double averageOrderValue = Math.exp(3.6 + 0.5 * gaussian(random));
+            spentCents = Math.round(orders * averageOrderValue * 100);
+        }
+        return new UserRow(id, orders, spentCents);
+    }
+
+    private static SubscriptionRow subscription(SplittableRandom random, long id, UserRow user, Plans plans,
+                                                LocalDate today) {
+        Tier tier = plans.tierFor(user, random);
+        PlanDuration duration = plans.durationFor(random);
+        int days = duration.getDurationInDays();
+
+        double roll = random.nextDouble();
+        SubscriptionStatus status;
+        LocalDate expiry;
+        if (roll < 0.75) {
+            status = SubscriptionStatus.ACTIVE;
+            expiry = random.nextDouble() < 0.02
+                    ? today.minusDays(1 + random.nextInt(30))
+                    : today.plusDays(random.nextInt(days) + 1);
+        } else if (roll < 0.90) {
+            status = SubscriptionStatus.EXPIRED;
+            expiry = today.minusDays(1 + random.nextInt(HISTORY_DAYS));
+        } else {
+            status = SubscriptionStatus.CANCELLED;
+            expiry = today.minusDays(random.nextInt(HISTORY_DAYS)).plusDays(days);
+        }
+        return new SubscriptionRow(id, user.id(), tier.getId(), duration.getId(), expiry.minusDays(days), expiry, status);
+    }
+
+    private void insert(List<UserRow> userBatch, List<SubscriptionRow> subscriptionBatch) {
+        if (userBatch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_USER, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    UserRow user = userBatch.get(i);
+                    ps.setLong(1, user.id());
+                    ps.setString(2, "synthetic" + user.id() + "@firstclub.test");
+                    ps.setString(3, "Synthetic User " + user.id());
+                    ps.setInt(4, user.orders());
+                    ps.setBigDecimal(5, BigDecimal.valueOf(user.spentCents(), 2));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return userBatch.size();
+                }
+            });
+            jdbcTemplate.batchUpdate(INSERT_SUBSCRIPTION, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    SubscriptionRow subscription = subscriptionBatch.get(i);
+                    ps.setLong(1, subscription.id());
+                    ps.setLong(2, subscription.userId());
+                    ps.setLong(3, subscription.tierId());
+                    ps.setLong(4, subscription.planDurationId());
+                    ps.setDate(5, Date.valueOf(subscription.startDate()));
+                    ps.setDate(6, Date.valueOf(subscription.expiryDate()));
+                    ps.setString(7, subscription.status().name());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return subscriptionBatch.size();
+                }
+            });
+        });
+        userBatch.clear();
+        subscriptionBatch.clear();
+    }
+
+    // Standard normal sample (Box-Muller); SplittableRandom has no nextGaussian on Java 17
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private record UserRow(long id, int orders, long spentCents) {
+    }
+
+    private record SubscriptionRow(long id, long userId, long tierId, long planDurationId,
+                                   LocalDate startDate, LocalDate expiryDate, SubscriptionStatus status) {
+    }
+
+    /**
+     * Catalog lookups for the generator: tiers as ranked and checked by the eligibility engine,
+     * durations with cumulative weights.
+     */
+    private static final class Plans {
+
+        private final EligibilityEngine.Compiled tiers;
+        private final List<PlanDuration> durations;
+        private final double[] cumulativeWeights;
+
+        Plans(EligibilityEngine.Compiled tiers, List<PlanDuration> durations) {
+            this.tiers = tiers;
+            this.durations = durations;
+            if (tiers.rankedTiers().isEmpty() || durations.isEmpty()) {
+                throw new IllegalStateException("Synthetic data needs a seeded catalog (tiers and plan durations)");
+            }
+            // Shorter plans are bought more often: weight 1 / sqrt(days)
+            this.cumulativeWeights = new double[durations.size()];
+            double total = 0;
+            for (int i = 0; i < durations.size(); i++) {
+                total += 1 / Math.sqrt(Math.max(1, durations.get(i).getDurationInDays()));
+                cumulativeWeights[i] = total;
+            }
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                cumulativeWeights[i] /= total;
+            }
+        }
+
+        // Highest tier the user qualifies for most of the time, otherwise any lower one
+        Tier tierFor(UserRow user, SplittableRandom random) {
+            long mask = tiers.eligibleTierMask(user.orders(), BigDecimal.valueOf(user.spentCents(), 2));
+            int qualified = mask != 0L ? 63 - Long.numberOfLeadingZeros(mask) : 0;
+            return tiers.rankedTiers().get(random.nextDouble() < 0.7 ? qualified : random.nextInt(qualified + 1));
+        }
+
+        PlanDuration durationFor(SplittableRandom random) {
+            double roll = random.nextDouble();
+            for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+                if (roll < cumulativeWeights[i]) {
+                    return durations.get(i);
+                }
+            }
+            return durations.get(durations.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+-- Schema as Hibernate generated it (ddl-auto=update) before migrations took over
+
+create sequence subscription_seq start with 1 increment by 50;
+
+create table app_user (
+    id           bigint generated by default as identity,
+    name         varchar(255),
+    email        varchar(255) not null,
+    total_orders integer        default 0 not null,
+    total_spent  numeric(38, 2) default 0 not null,
+    constraint pk_app_user primary key (id),
+    constraint uk_app_user_email unique (email)
+);
+
+create table tier (
+    id              bigint generated by default as identity,
+    name            varchar(255) not null,
+    min_orders      integer,
+    min_order_value float(53),
+    constraint pk_tier primary key (id),
+    constraint uk_tier_name unique (name)
+);
+
+create table tier_benefits (
+    tier_id       bigint       not null,
+    benefit_key   varchar(255) not null,
+    benefit_value varchar(255),
+    constraint pk_tier_benefits primary key (tier_id, benefit_key),
+    constraint fk_tier_benefits_tier foreign key (tier_id) references tier
+);
+
+create table plan_duration (
+    id               bigint generated by default as identity,
+    name             varchar(255),
+    duration_in_days integer,
+    constraint pk_plan_duration primary key (id)
+);
+
+create table plan_pricing (
+    id               bigint generated by default as identity,
+    tier_id          bigint,
+    plan_duration_id bigint,
+    price            numeric(38, 2),
+    constraint pk_plan_pricing primary key (id),
+    constraint uk_plan_pricing_tier_duration unique (tier_id, plan_duration_id),
+    constraint fk_plan_pricing_tier foreign key (tier_id) references tier,
+    constraint fk_plan_pricing_duration foreign key (plan_duration_id) references plan_duration
+);
+
+create table subscription (
+    id              bigint not null,
+    user_id         bigint,
+    current_tier_id bigint,
+    current_plan_id bigint,
+    start_date      date,
+    expiry_date     date,
+    status          enum ('ACTIVE', 'CANCELLED', 'EXPIRED'),
+    version         bigint,
+    constraint pk_subscription primary key (id),
+    constraint uk_subscription_user unique (user_id),
+    constraint fk_subscription_user foreign key (user_id) references app_user,
+    constraint fk_subscription_tier foreign key (current_tier_id) references tier,
+    constraint fk_subscription_plan foreign key (current_plan_id) references plan_duration
+);
+
+-- The expiry sweeper takes its chunks in (status, expiry_date, id) order; with id in the index the
+-- scan returns rows in that order and stops after one chunk
+create index idx_subscription_status_expiry on subscription (status, expiry_date, id);
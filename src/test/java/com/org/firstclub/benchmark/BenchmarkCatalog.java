@@ -0,0 +1,80 @@
+package com.org.firstclub.benchmark;
+
+import com.org.firstclub.repository.entities.PlanDuration;
+import com.org.firstclub.repository.entities.PlanPricing;
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.service.CatalogService;
+import com.org.firstclub.service.CatalogSnapshot;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Fixed in-memory catalog matching the tiers DataSeeder creates, for benchmarks that do not need a database.
+ */
+final class BenchmarkCatalog {
+
+    private BenchmarkCatalog() {
+    }
+
+    static List<Tier> seededTiers() {
+        return List.of(
+                tier(1L, "Silver", 0, 0.0),
+                tier(2L, "Gold", 5, 500.0),
+                tier(3L, "Platinum", 20, 2000.0));
+    }
+
+    static List<PlanDuration> seededDurations() {
+        return List.of(duration(1L, "Monthly", 30), duration(2L, "Quarterly", 90), duration(3L, "Yearly", 365));
+    }
+
+    // One pricing per tier and duration, like the seeded plan matrix
+    static List<PlanPricing> pricings(List<Tier> tiers, List<PlanDuration> durations) {
+        List<PlanPricing> pricings = new ArrayList<>();
+        long id = 1;
+        for (Tier tier : tiers) {
+            for (PlanDuration duration : durations) {
+                PlanPricing pricing = new PlanPricing();
+                pricing.setId(id++);
+                pricing.setTier(tier);
+                pricing.setPlanDuration(duration);
+                pricing.setPrice(new BigDecimal("24.99"));
+                pricings.add(pricing);
+            }
+        }
+        return pricings;
+    }
+
+    static PlanDuration duration(Long id, String name, int days) {
+        PlanDuration duration = new PlanDuration();
+        duration.setId(id);
+        duration.setName(name);
+        duration.setDurationInDays(days);
+        return duration;
+    }
+
+    static Tier tier(Long id, String name, int minOrders, double minOrderValue) {
+        Tier tier = new Tier();
+        tier.setId(id);
+        tier.setName(name);
+        tier.setMinOrders(minOrders);
+        tier.setMinOrderValue(minOrderValue);
+        tier.setBenefits(new HashMap<>());
+        return tier;
+    }
+
+    static CatalogService catalogService(List<Tier> tiers) {
+        return catalogService(new CatalogSnapshot(tiers, List.of(), List.of()));
+    }
+
+    static CatalogService catalogService(CatalogSnapshot snapshot) {
+        return new CatalogService(null, null, null, null) {
+            @Override
+            public CatalogSnapshot getSnapshot() {
+                return snapshot;
+            }
+        };
+    }
+}
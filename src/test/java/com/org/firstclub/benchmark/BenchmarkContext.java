@@ -0,0 +1,52 @@
+package com.org.firstclub.benchmark;
+
+import com.org.firstclub.FirstclubApplication;
+import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.entities.User;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application without the web layer against a private in-memory H2 database,
+ * for benchmarks that exercise services and repositories end to end.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        // Command-line arguments, so they override application.properties (builder properties would not)
+        return new SpringApplicationBuilder(FirstclubApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--firstclub.expiry-sweeper.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.org.firstclub=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.springframework.web=WARN");
+    }
+
+    /**
+     * Insert users with no orders, so they qualify for the entry tier only.
+     *
+     * @return IDs of the inserted users
+     */
+    static List<Long> seedUsers(ConfigurableApplicationContext context, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setName("Bench User " + i);
+            user.setEmail("bench" + i + "@firstclub.test");
+            users.add(user);
+        }
+        return context.getBean(UserRepository.class).saveAll(users).stream().map(User::getId).toList();
+    }
+}
@@ -0,0 +1,83 @@
+package com.org.firstclub.benchmark;
+
+import com.org.firstclub.repository.entities.PlanDuration;
+import com.org.firstclub.repository.entities.PlanPricing;
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.service.CatalogResponseCache;
+import com.org.firstclub.service.CatalogSnapshot;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Per-request cost of producing the GET /plans body (9 pricings as seeded) into the response buffer:
+ * Jackson over the entity graph on every request (optionally gzip-compressed per request, as
+ * server.compression would) versus copying the bytes CatalogResponseCache rendered once.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CatalogResponseBenchmark {
+
+    private ObjectMapper objectMapper;
+    private List<PlanPricing> allPlans;
+    private CatalogResponseCache responseCache;
+    private ByteArrayOutputStream socket;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+
+        List<Tier> tiers = BenchmarkCatalog.seededTiers();
+        for (Tier tier : tiers) {
+            tier.setBenefits(Map.of("FREE_DELIVERY", "true", "DISCOUNT_PERCENT", "5", "EARLY_ACCESS_HOURS", "24"));
+        }
+        List<PlanDuration> durations = BenchmarkCatalog.seededDurations();
+        allPlans = BenchmarkCatalog.pricings(tiers, durations);
+
+        CatalogSnapshot snapshot = new CatalogSnapshot(tiers, durations, allPlans);
+        responseCache = new CatalogResponseCache(BenchmarkCatalog.catalogService(snapshot), objectMapper);
+        responseCache.get();
+        socket = new ByteArrayOutputStream(16 * 1024);
+    }
+
+    @Benchmark
+    public int jackson() {
+        socket.reset();
+        objectMapper.writeValue(socket, allPlans);
+        return socket.size();
+    }
+
+    @Benchmark
+    public int jacksonGzip() throws IOException {
+        socket.reset();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(socket)) {
+            objectMapper.writeValue(gzip, allPlans);
+        }
+        return socket.size();
+    }
+
+    @Benchmark
+    public int preRendered() {
+        socket.reset();
+        socket.writeBytes(responseCache.get().plans().identity());
+        return socket.size();
+    }
+
+    @Benchmark
+    public int preRenderedGzip() {
+        socket.reset();
+        socket.writeBytes(responseCache.get().plans().gzip());
+        return socket.size();
+    }
+}
@@ -0,0 +1,85 @@
+package com.org.firstclub.benchmark;
+
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.repository.entities.User;
+import com.org.firstclub.service.eligibility.EligibilityEngine;
+import com.org.firstclub.service.eligibility.MinOrdersRule;
+import com.org.firstclub.service.eligibility.MinSpendRule;
+import com.org.firstclub.utils.CommonUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-call CommonUtils.isEligible check with the compiled EligibilityEngine.
+ * "Highest tier" benchmarks answer the question the subscribe and CRM paths actually ask:
+ * the old path has to call isEligible once per tier.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EligibilityBenchmark {
+
+    private CommonUtils commonUtils;
+    private EligibilityEngine engine;
+    private List<Tier> tiers;
+    private Tier goldTier;
+    private User[] users;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        tiers = BenchmarkCatalog.seededTiers();
+        goldTier = tiers.get(1);
+        commonUtils = new CommonUtils();
+        engine = new EligibilityEngine(BenchmarkCatalog.catalogService(tiers),
+                List.of(new MinOrdersRule(), new MinSpendRule()));
+
+        // Mix of users landing in every tier so branches are not perfectly predictable
+        users = new User[1024];
+        for (int i = 0; i < users.length; i++) {
+            User user = new User();
+            user.setTotalOrders((i * 7) % 30);
+            user.setTotalSpent(BigDecimal.valueOf((i * 131L) % 300_000, 2));
+            users[i] = user;
+        }
+    }
+
+    private User nextUser() {
+        cursor = (cursor + 1) & (users.length - 1);
+        return users[cursor];
+    }
+
+    @Benchmark
+    public boolean commonUtilsSingleTier() {
+        return commonUtils.isEligible(nextUser(), goldTier);
+    }
+
+    @Benchmark
+    public boolean engineSingleTier() {
+        return engine.isEligible(nextUser(), goldTier.getId());
+    }
+
+    @Benchmark
+    public void commonUtilsHighestTier(Blackhole blackhole) {
+        User user = nextUser();
+        Tier highest = null;
+        for (Tier tier : tiers) {
+            if (commonUtils.isEligible(user, tier)) {
+                highest = tier;
+            }
+        }
+        blackhole.consume(highest);
+    }
+
+    @Benchmark
+    public long engineTierMask() {
+        return engine.eligibleTierMask(nextUser());
+    }
+}
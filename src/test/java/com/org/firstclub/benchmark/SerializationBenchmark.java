@@ -0,0 +1,93 @@
+package com.org.firstclub.benchmark;
+
+import com.org.firstclub.repository.dto.SubscriptionResponse;
+import com.org.firstclub.repository.entities.PlanPricing;
+import com.org.firstclub.repository.entities.Subscription;
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.repository.entities.User;
+import com.org.firstclub.repository.enums.SubscriptionStatus;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the entities the API returns most: a user's subscription (/status)
+ * and the full plan list (/plans, 9 pricings as seeded).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Subscription subscription;
+    private Map<String, Object> subscriptionFields;
+    private PlanPricing planPricing;
+    private List<PlanPricing> allPlans;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+
+        List<Tier> tiers = BenchmarkCatalog.seededTiers();
+        for (Tier tier : tiers) {
+            tier.setBenefits(Map.of("FREE_DELIVERY", "true", "DISCOUNT_PERCENT", "5", "EARLY_ACCESS_HOURS", "24"));
+        }
+        allPlans = BenchmarkCatalog.pricings(tiers, BenchmarkCatalog.seededDurations());
+        planPricing = allPlans.get(4);
+
+        User user = new User();
+        user.setId(42L);
+        user.setName("Bench User");
+        user.setEmail("bench@firstclub.test");
+        user.setTotalOrders(12);
+        user.setTotalSpent(new BigDecimal("1234.50"));
+
+        subscription = new Subscription();
+        subscription.setId(7L);
+        subscription.setUser(user);
+        subscription.setCurrentTier(planPricing.getTier());
+        subscription.setCurrentPlan(planPricing.getPlanDuration());
+        subscription.setStartDate(LocalDate.of(2025, 1, 1));
+        subscription.setExpiryDate(LocalDate.of(2025, 4, 1));
+        subscription.setStatus(SubscriptionStatus.ACTIVE);
+        subscription.setVersion(3L);
+
+        subscriptionFields = SubscriptionResponse.from(subscription).select(SubscriptionResponse.parseFields("tierName,expiryDate"));
+    }
+
+    @Benchmark
+    public byte[] subscription() {
+        return objectMapper.writeValueAsBytes(subscription);
+    }
+
+    // What GET /status returns: map the entity to the response record, then serialize
+    @Benchmark
+    public byte[] subscriptionResponse() {
+        return objectMapper.writeValueAsBytes(SubscriptionResponse.from(subscription));
+    }
+
+    @Benchmark
+    public byte[] subscriptionFields() {
+        return objectMapper.writeValueAsBytes(subscriptionFields);
+    }
+
+    @Benchmark
+    public byte[] planPricing() {
+        return objectMapper.writeValueAsBytes(planPricing);
+    }
+
+    @Benchmark
+    public byte[] allPlans() {
+        return objectMapper.writeValueAsBytes(allPlans);
+    }
+}
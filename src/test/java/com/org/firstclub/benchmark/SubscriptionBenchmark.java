@@ -0,0 +1,80 @@
+package com.org.firstclub.benchmark;
+
+import com.org.firstclub.repository.entities.PlanPricing;
+import com.org.firstclub.repository.entities.Subscription;
+import com.org.firstclub.service.ActiveSubscriptionCache;
+import com.org.firstclub.service.PlanService;
+import com.org.firstclub.service.SubscriptionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SubscriptionService end to end (transactions, Hibernate, H2) on a booted application context.
+ * Users start without orders, so they rotate between the Silver plans; after the first round every
+ * subscribe is a plan change on an existing subscription, which is the steady state in production.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubscriptionBenchmark {
+
+    private static final int USERS = 1024;
+
+    private ConfigurableApplicationContext context;
+    private SubscriptionService subscriptionService;
+    private ActiveSubscriptionCache activeSubscriptionCache;
+    private Long[] userIds;
+    private Long[] silverPlanIds;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        subscriptionService = context.getBean(SubscriptionService.class);
+        activeSubscriptionCache = context.getBean(ActiveSubscriptionCache.class);
+        userIds = BenchmarkContext.seedUsers(context, USERS).toArray(new Long[0]);
+        silverPlanIds = context.getBean(PlanService.class).getAllPlans().stream()
+                .filter(pricing -> "Silver".equals(pricing.getTier().getName()))
+                .map(PlanPricing::getId)
+                .toArray(Long[]::new);
+
+        // Every user starts with an active subscription so status reads always hit a row
+        for (Long userId : userIds) {
+            subscriptionService.subscribe(userId, silverPlanIds[0]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (USERS - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public Subscription subscribe() {
+        int i = next();
+        return subscriptionService.subscribe(userIds[i], silverPlanIds[i % silverPlanIds.length]);
+    }
+
+    @Benchmark
+    public Subscription getActiveSubscriptionCached() {
+        return subscriptionService.getActiveSubscription(userIds[next()]);
+    }
+
+    @Benchmark
+    public Subscription getActiveSubscriptionUncached() {
+        Long userId = userIds[next()];
+        activeSubscriptionCache.invalidate(userId);
+        return subscriptionService.getActiveSubscription(userId);
+    }
+}
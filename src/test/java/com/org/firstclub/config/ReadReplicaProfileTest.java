@@ -0,0 +1,78 @@
+package com.org.firstclub.config;
+
+import com.org.firstclub.exception.ResourceNotFoundException;
+import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.dto.UserRegistrationRequest;
+import com.org.firstclub.repository.entities.User;
+import com.org.firstclub.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The read-replica profile as shipped: a separate replica database, fed by LocalReplicaFeeder.
+ * The copy interval is stretched so each test decides when the replica catches up.
+ */
+@ActiveProfiles("read-replica")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:profile-primary;DB_CLOSE_DELAY=-1",
+        "firstclub.datasource.replica.urls=jdbc:h2:mem:profile-replica;DB_CLOSE_DELAY=-1",
+        "firstclub.datasource.replica.local-copy-interval-ms=3600000",
+        "spring.jpa.show-sql=false",
+        "firstclub.expiry-sweeper.enabled=false"
+})
+class ReadReplicaProfileTest {
+
+    @Autowired
+    private LocalReplicaFeeder feeder;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        feeder.copy();
+    }
+
+    @Test
+    void replicaReads_LagUntilNextCopy() {
+        User user = userRepository.save(newUser("Original"));
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(user.getId()));
+        feeder.copy();
+        assertEquals("Original", userService.getUserById(user.getId()).getName());
+
+        user.setName("Renamed");
+        userRepository.save(user);
+        assertEquals("Original", userService.getUserById(user.getId()).getName());
+        feeder.copy();
+        assertEquals("Renamed", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    void readAfterOwnWrite_UsesPrimary() {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Profile User");
+        request.setEmail(UUID.randomUUID() + "@firstclub.test");
+
+        User created = userService.createUser(request);
+
+        assertEquals(created.getEmail(), userService.getUserById(created.getId()).getEmail());
+    }
+
+    private static User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(UUID.randomUUID() + "@firstclub.test");
+        return user;
+    }
+}
@@ -0,0 +1,160 @@
+package com.org.firstclub.config;
+
+import com.org.firstclub.exception.ResourceNotFoundException;
+import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.dto.UserRegistrationRequest;
+import com.org.firstclub.repository.entities.PlanPricing;
+import com.org.firstclub.repository.entities.User;
+import com.org.firstclub.repository.enums.SubscriptionStatus;
+import com.org.firstclub.service.ActiveSubscriptionCache;
+import com.org.firstclub.service.PlanService;
+import com.org.firstclub.service.SubscriptionService;
+import com.org.firstclub.service.TierService;
+import com.org.firstclub.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Read-replica routing against two separate in-memory H2 databases. Nothing replicates between
+ * them on its own; {@link #replicate()} copies the primary to the replica, so every write made
+ * after it is "replica lag".
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "firstclub.datasource.replica.enabled=true",
+        "firstclub.datasource.replica.urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "firstclub.datasource.replica.read-your-writes-ms=60000",
+        "spring.jpa.open-in-view=false",
+        "spring.jpa.show-sql=false",
+        "firstclub.expiry-sweeper.enabled=false"
+})
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TierService tierService;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private PlanService planService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActiveSubscriptionCache activeSubscriptionCache;
+
+    private JdbcTemplate primary;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = new JdbcTemplate(primaryDataSource);
+        activeSubscriptionCache.invalidateAll();
+        replicate();
+    }
+
+    @Test
+    void readOnlyReads_UseReplica() throws SQLException {
+        User user = userRepository.save(newUser("Original"));
+        replicate();
+        primary.update("update app_user set name = ? where id = ?", "Renamed", user.getId());
+
+        // The replica has not seen the rename yet, and nothing marked the user as recently written
+        assertEquals("Original", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    void writes_UsePrimary() {
+        User created = userService.createUser(registration());
+
+        assertEquals(1, primary.queryForObject("select count(*) from app_user where id = ?", Integer.class, created.getId()));
+        assertEquals(0, replica().queryForObject("select count(*) from app_user where id = ?", Integer.class, created.getId()));
+    }
+
+    @Test
+    void readAfterOwnWrite_UsesPrimary() {
+        User created = userService.createUser(registration());
+
+        // Not on the replica yet, but the user's own reads are pinned to the primary
+        assertEquals(created.getEmail(), userService.getUserById(created.getId()).getEmail());
+        assertTrue(tierService.checkUserEligibility(created.getId(), silverPlan().getTier().getId()));
+    }
+
+    @Test
+    void statusAfterSubscribe_UsesPrimary() throws SQLException {
+        User user = userRepository.save(newUser("Subscriber"));
+        replicate();
+        subscriptionService.subscribe(user.getId(), silverPlan().getId());
+        activeSubscriptionCache.invalidate(user.getId());
+
+        // The replica does not have the subscription yet, but the subscriber's own status read goes to the primary
+        assertEquals(0, replica().queryForObject("select count(*) from subscription where user_id = ?", Integer.class, user.getId()));
+        assertEquals(SubscriptionStatus.ACTIVE, subscriptionService.getActiveSubscription(user.getId()).getStatus());
+    }
+
+    @Test
+    void unknownOnReplica_NotFound() {
+        User user = userRepository.save(newUser("Unreplicated"));
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(user.getId()));
+    }
+
+    private PlanPricing silverPlan() {
+        return planService.getAllPlans().stream()
+                .filter(pricing -> "Silver".equals(pricing.getTier().getName()))
+                .findFirst().orElseThrow();
+    }
+
+    // Copy the primary's schema and data over the replica
+    private void replicate() throws SQLException {
+        List<String> script = primary.queryForList("SCRIPT", String.class);
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private static JdbcTemplate replica() {
+        return new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+    }
+
+    private static User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(UUID.randomUUID() + "@firstclub.test");
+        return user;
+    }
+
+    private static UserRegistrationRequest registration() {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Routed User");
+        request.setEmail(UUID.randomUUID() + "@firstclub.test");
+        return request;
+    }
+}
@@ -0,0 +1,52 @@
+package com.org.firstclub.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+            mock(DataSource.class), List.of(mock(DataSource.class), mock(DataSource.class)));
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readWriteTransaction_UsesPrimary() {
+        assertEquals("primary", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_RoundRobinsReplicas() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        assertEquals("replica-2", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_PrimaryForced() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("primary", ReplicaRouting.onPrimary(routing::determineCurrentLookupKey));
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void noReplicas_UsesPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadWriteRoutingDataSource primaryOnly = new ReadWriteRoutingDataSource(mock(DataSource.class), List.of());
+
+        assertEquals("primary", primaryOnly.determineCurrentLookupKey());
+    }
+}
@@ -0,0 +1,54 @@
+package com.org.firstclub.controller;
+
+import com.org.firstclub.service.CatalogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Catalog changes made in the database reach the catalog endpoints, with a new ETag, on the next refresh.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog-refresh;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "firstclub.expiry-sweeper.enabled=false",
+        "firstclub.catalog.refresh-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class CatalogRefreshTest {
+
+    private static final String TIERS = "/api/membership/tiers";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void tierRowChanged_NewETagAfterRefresh() throws Exception {
+        String before = mockMvc.perform(get(TIERS)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertFalse(catalogService.refresh());
+        jdbcTemplate.update("update tier set min_orders = min_orders + 1 where name = 'Gold'");
+        assertTrue(catalogService.refresh());
+
+        String after = mockMvc.perform(get(TIERS).header("If-None-Match", before))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(before, after);
+    }
+}
@@ -0,0 +1,397 @@
+package com.org.firstclub.controller;
+
+import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.entities.PlanPricing;
+import com.org.firstclub.repository.entities.User;
+import com.org.firstclub.service.ActiveSubscriptionCache;
+import com.org.firstclub.service.OrderEventAggregator;
+import com.org.firstclub.service.PlanService;
+import com.org.firstclub.service.SubscriptionService;
+import com.org.firstclub.support.SqlStatementCounter;
+import com.org.firstclub.support.SqlStatementCounting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets for every MembershipController endpoint, to catch N+1 regressions.
+ * Budgets are the statement counts of the current implementation; raise one only together with
+ * the change that needs it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "firstclub.expiry-sweeper.enabled=false",
+        "firstclub.catalog.refresh-interval-ms=3600000",
+        "firstclub.order-ingest.flush-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@Import(SqlStatementCounting.class)
+class MembershipControllerQueryBudgetTest {
+
+    private static final String BASE = "/api/membership";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter sqlCounter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private PlanService planService;
+
+    @Autowired
+    private OrderEventAggregator orderEventAggregator;
+
+    @Autowired
+    private ActiveSubscriptionCache activeSubscriptionCache;
+
+    private PlanPricing silverPlan;
+    private PlanPricing goldPlan;
+
+    @BeforeEach
+    void setUp() {
+        List<PlanPricing> plans = planService.getAllPlans();
+        silverPlan = plans.stream().filter(p -> "Silver".equals(p.getTier().getName())).findFirst().orElseThrow();
+        goldPlan = plans.stream().filter(p -> "Gold".equals(p.getTier().getName())).findFirst().orElseThrow();
+        activeSubscriptionCache.invalidateAll();
+    }
+
+    @Test
+    void createUser() throws Exception {
+        SqlStatementCounter.Usage usage = sqlCounter.measure(() -> mockMvc.perform(post(BASE + "/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Budget\",\"email\":\"" + UUID.randomUUID() + "@firstclub.test\"}"))
+                .andExpect(status().isCreated()));
+
+        usage.assertStatementsAtMost(1);
+    }
+
+    @Test
+    void getUsersPage() throws Exception {
+        createUsers(30);
+
+        SqlStatementCounter.Usage usage = sqlCounter.measure(() -> mockMvc.perform(get(BASE + "/users")
+                        .param("limit", "20")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        usage.assertStatementsAtMost(1);
+        usage.assertRowsAtMost(21);
+    }
+
+    @Test
+    void streamUsers() throws Exception {
+        createUsers(30);
+
+        SqlStatementCounter.Usage usage = sqlCounter.measure(() -> {
+            MvcResult result = mockMvc.perform(get(BASE + "/users").accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        });
+
+        // One streaming query for all users, not one per page or per user
+        usage.assertStatementsAtMost(1);
+    }
+
+    @Test
+    void getUserById() throws Exception {
+        User user = createUsers(1).get(0);
+
+        SqlStatementCounter.Usage usage = sqlCounter.measure(() ->
+                mockMvc.perform(get(BASE + "/users/" + user.getId())).andExpect(status().isOk()));
+
+        usage.assertStatementsAtMost(1);
+    }
+
+    @Test
+    void getPlans() throws Exception {
+        SqlStatementCounter.Usage usage = sqlCounter.measure(() ->
+                mockMvc.perform(get(BASE + "/plans")).andExpect(status().isOk()));
+
+        // Served from the in-memory catalog snapshot
+        assertEquals(0, usage.statementCount());
+    }
+
+    @Test
+    void getTiers() throws Exception {
+        SqlStatementCounter.Usage usage = sqlCounter.measure(() ->
+                mockMvc.perform(get(BASE + "/tiers")).andExpect(status().isOk()));
+
+        assertEquals(0, usage.statementCount());
+    }
+
+    @Test
+    void getCatalog_Revalidation() throws Exception {
+        for (String path : List.of("/plans", "/tiers")) {
+            String etag = mockMvc.perform(get(BASE + path))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", "max-age=300, must-revalidate"))
+                    .andExpect(header().exists("Last-Modified"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            SqlStatementCounter.Usage usage = sqlCounter.measure(() -> mockMvc.perform(get(BASE + path)
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag))
+                    .andExpect(content().string("")));
+
+            // Not modified: no query and no body
+            assertEquals(0, usage.statementCount());
+            mockMvc.perform(get(BASE + path).header("If-None-Match", "\"stale\""))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void getCatalog_Gzip() throws Exception {
+        for (String path : List.of("/plans", "/tiers")) {
+            MockHttpServletResponse identity = mockMvc.perform(get(BASE + path).header("Accept-Encoding", "identity"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andReturn().getResponse();
+            MockHttpServletResponse gzip = mockMvc.perform(get(BASE + path).header("Accept-Encoding", "br, gzip;q=0.8"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andExpect(header().string("Vary", "Accept-Encoding"))
+                    .andReturn().getResponse();
+            mockMvc.perform(get(BASE + path).header("Accept-Encoding", "gzip;q=0"))
+                    .andExpect(header().doesNotExist("Content-Encoding"));
+            // An explicit gzip entry wins over *, in either direction
+            mockMvc.perform(get(BASE + path).header("Accept-Encoding", "*;q=0, gzip"))
+                    .andExpect(header().string("Content-Encoding", "gzip"));
+            mockMvc.perform(get(BASE + path).header("Accept-Encoding", "gzip;q=0, *"))
+                    .andExpect(header().doesNotExist("Content-Encoding"));
+
+            assertArrayEquals(identity.getContentAsByteArray(), gunzip(gzip.getContentAsByteArray()));
+            assertTrue(gzip.getContentAsByteArray().length < identity.getContentAsByteArray().length);
+            assertNotEquals(identity.getHeader("ETag"), gzip.getHeader("ETag"));
+            mockMvc.perform(get(BASE + path)
+                            .header("Accept-Encoding", "gzip")
+                            .header("If-None-Match", gzip.getHeader("ETag")))
+                    .andExpect(status().isNotModified());
+        }
+    }
+
+    @Test
+    void checkEligibility() throws Exception {
+        User user = createUsers(1).get(0);
+
+        SqlStatementCounter.Usage usage = sqlCounter.measure(() -> mockMvc.perform(
+                        get(BASE + "/eligibility/" + user.getId() + "/" + goldPlan.getTier().getId()))
+                .andExpect(status().isOk()));
+
+        usage.assertStatementsAtMost(1);
+    }
+
+    @Test
+    void checkEligibilityBulk() throws Exception {
+        List<User> users = createUsers(50);
+
+        SqlStatementCounter.Usage usage = sqlCounter.measure(() -> {
+            MvcResult result = mockMvc.perform(post(BASE + "/eligibility/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_NDJSON)
+                            .content("{\"fromUserId\":" + users.get(0).getId()
+                                    + ",\"toUserId\":" + users.get(users.size() - 1).getId() + "}"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        });
+
+        // Independent of the number of users in the range
+        usage.assertStatementsAtMost(1);
+        usage.assertRowsAtMost(users.size());
+    }
+
+    @Test
+    void subscribe() throws Exception {
+        User user = createUsers(1).get(0);
+
+        SqlStatementCounter.Usage usage = sqlCounter.measure(() -> mockMvc.perform(post(BASE + "/subscribe")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(subscriptionJson(user.getId(), silverPlan.getId())))
+                .andExpect(status().isCreated()));
+
+        // User, the user's subscription row, insert; plus an id block fetch when the pooled generator
+        // has used up its block (on the first two inserts of a fresh context, then every 50)
+        usage.assertStatementsAtMost(3, "subscription_seq", 1);
+    }
+
+    @Test
+    void subscribe_IdempotentRetry() throws Exception {
+        User user = createUsers(1).get(0);
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(post(BASE + "/subscribe")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(subscriptionJson(user.getId(), silverPlan.getId())))
+                .andExpect(status().isCreated());
+
+        SqlStatementCounter.Usage retry = sqlCounter.measure(() -> mockMvc.perform(post(BASE + "/subscribe")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(subscriptionJson(user.getId(), silverPlan.getId())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.tierName").value("Silver")));
+        SqlStatementCounter.Usage reused = sqlCounter.measure(() -> mockMvc.perform(post(BASE + "/subscribe")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(subscriptionJson(user.getId(), goldPlan.getId())))
+                .andExpect(status().isUnprocessableContent()));
+
+        // Answered from the stored result
+        assertEquals(0, retry.statementCount());
+        assertEquals(0, reused.statementCount());
+    }
+
+    @Test
+    void subscribe_Upgrade() throws Exception {
+        User user = createUser(new BigDecimal("600.00"));
+        subscriptionService.subscribe(user.getId(), silverPlan.getId());
+
+        SqlStatementCounter.Usage usage = sqlCounter.measure(() -> mockMvc.perform(post(BASE + "/subscribe")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(subscriptionJson(user.getId(), goldPlan.getId())))
+                .andExpect(status().isCreated()));
+
+        usage.assertStatementsAtMost(3);
+    }
+
+    @Test
+    void subscribeBatch() throws Exception {
+        List<User> users = createUsers(100);
+        StringBuilder items = new StringBuilder();
+        for (User user : users) {
+            items.append(items.length() == 0 ? "" : ",").append(subscriptionJson(user.getId(), silverPlan.getId()));
+        }
+
+        SqlStatementCounter.Usage usage = sqlCounter.measure(() -> mockMvc.perform(post(BASE + "/subscribe/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"subscriptions\":[" + items + "]}"))
+                .andExpect(status().isOk()));
+
+        // Set-based loads and JDBC batches: a fixed number of round trips for 100 users, not 100x
+        usage.assertStatementsAtMost(6);
+    }
+
+    @Test
+    void ingestOrders_AndFlush() throws Exception {
+        List<User> users = createUsers(20);
+        StringBuilder events = new StringBuilder();
+        for (User user : users) {
+            events.append(events.length() == 0 ? "" : ",")
+                    .append("{\"userId\":").append(user.getId()).append(",\"amount\":10.00}");
+        }
+
+        SqlStatementCounter.Usage ingest = sqlCounter.measure(() -> mockMvc.perform(post(BASE + "/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"events\":[" + events + "]}"))
+                .andExpect(status().isAccepted()));
+        SqlStatementCounter.Usage flush = sqlCounter.measure(orderEventAggregator::flush);
+
+        // Accepting events never touches the database; the flush is one batch plus one read-back
+        assertEquals(0, ingest.statementCount());
+        flush.assertStatementsAtMost(2);
+    }
+
+    @Test
+    void getPromotions() throws Exception {
+        SqlStatementCounter.Usage usage = sqlCounter.measure(() ->
+                mockMvc.perform(get(BASE + "/promotions")).andExpect(status().isOk()));
+
+        assertEquals(0, usage.statementCount());
+    }
+
+    @Test
+    void getStatus() throws Exception {
+        User user = createUsers(1).get(0);
+        subscriptionService.subscribe(user.getId(), silverPlan.getId());
+
+        SqlStatementCounter.Usage miss = sqlCounter.measure(() ->
+                mockMvc.perform(get(BASE + "/status/" + user.getId())).andExpect(status().isOk()));
+        SqlStatementCounter.Usage hit = sqlCounter.measure(() -> mockMvc.perform(get(BASE + "/status/" + user.getId())
+                        .param("fields", "tierName,expiryDate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tierName").value("Silver"))
+                .andExpect(jsonPath("$.user").doesNotExist()));
+
+        miss.assertStatementsAtMost(1);
+        assertEquals(0, hit.statementCount());
+    }
+
+    @Test
+    void cancel() throws Exception {
+        User user = createUsers(1).get(0);
+        subscriptionService.subscribe(user.getId(), silverPlan.getId());
+
+        SqlStatementCounter.Usage usage = sqlCounter.measure(() ->
+                mockMvc.perform(post(BASE + "/cancel/" + user.getId())).andExpect(status().isNoContent()));
+
+        usage.assertStatementsAtMost(2);
+    }
+
+    private List<User> createUsers(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setName("Budget User " + i);
+            user.setEmail(UUID.randomUUID() + "@firstclub.test");
+            users.add(user);
+        }
+        return userRepository.saveAll(users);
+    }
+
+    private User createUser(BigDecimal totalSpent) {
+        User user = new User();
+        user.setName("Budget User");
+        user.setEmail(UUID.randomUUID() + "@firstclub.test");
+        user.setTotalSpent(totalSpent);
+        return userRepository.save(user);
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static String subscriptionJson(Long userId, Long planPricingId) {
+        return "{\"userId\":" + userId + ",\"planPricingId\":" + planPricingId + "}";
+    }
+}
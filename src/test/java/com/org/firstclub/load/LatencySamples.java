@@ -0,0 +1,67 @@
+package com.org.firstclub.load;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of raw latencies (nanoseconds) plus response-class counters, owned by one client thread.
+ * Raw samples keep percentiles exact; a 10-second phase at tens of thousands of requests per second
+ * is only a few MB.
+ */
+final class LatencySamples {
+
+    private long[] latencies = new long[1024];
+    private int size;
+    private long clientErrors; // 4xx, e.g. status of a cancelled user; expected under a random mix
+    private long errors;       // 5xx and I/O failures
+
+    void record(long latencyNanos, int status) {
+        if (size == latencies.length) {
+            latencies = Arrays.copyOf(latencies, size * 2);
+        }
+        latencies[size++] = latencyNanos;
+        if (status >= 500) {
+            errors++;
+        } else if (status >= 400) {
+            clientErrors++;
+        }
+    }
+
+    void recordFailure() {
+        errors++;
+    }
+
+    void addAll(LatencySamples other) {
+        if (size + other.size > latencies.length) {
+            latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, size + other.size));
+        }
+        System.arraycopy(other.latencies, 0, latencies, size, other.size);
+        size += other.size;
+        clientErrors += other.clientErrors;
+        errors += other.errors;
+    }
+
+    long[] sorted() {
+        long[] copy = Arrays.copyOf(latencies, size);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    long clientErrors() {
+        return clientErrors;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    /**
+     * Nearest-rank percentile of an ascending array; 0 when empty.
+     */
+    static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0L;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,41 @@
+package com.org.firstclub.load;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencySamplesTest {
+
+    @Test
+    void percentile_NearestRank() {
+        LatencySamples samples = new LatencySamples();
+        for (long latency = 1000; latency >= 1; latency--) {
+            samples.record(latency, 200);
+        }
+        long[] sorted = samples.sorted();
+
+        assertEquals(500L, LatencySamples.percentile(sorted, 0.50));
+        assertEquals(990L, LatencySamples.percentile(sorted, 0.99));
+        assertEquals(999L, LatencySamples.percentile(sorted, 0.999));
+        assertEquals(1000L, LatencySamples.percentile(sorted, 1.0));
+        assertEquals(0L, LatencySamples.percentile(new long[0], 0.99));
+    }
+
+    @Test
+    void addAll_MergesSamplesAndCounters() {
+        LatencySamples a = new LatencySamples();
+        a.record(5, 200);
+        a.record(7, 404);
+        LatencySamples b = new LatencySamples();
+        for (int i = 0; i < 2000; i++) {
+            b.record(1, 500);
+        }
+        b.recordFailure();
+
+        a.addAll(b);
+
+        assertEquals(2002, a.sorted().length);
+        assertEquals(1, a.clientErrors());
+        assertEquals(2001, a.errors());
+    }
+}
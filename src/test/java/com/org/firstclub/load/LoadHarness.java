@@ -0,0 +1,245 @@
+package com.org.firstclub.load;
+
+import com.org.firstclub.FirstclubApplication;
+import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.dto.SubscriptionRequest;
+import com.org.firstclub.repository.entities.PlanPricing;
+import com.org.firstclub.repository.entities.User;
+import com.org.firstclub.service.PlanService;
+import com.org.firstclub.service.SubscriptionService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * End-to-end load test for the membership REST API.
+ *
+ * Boots FirstclubApplication on a random port against a private in-memory H2, seeds synthetic users
+ * (each with an active Silver subscription), then for every configured client count runs a closed-loop
+ * workload: each client thread picks an endpoint from the weighted mix, sends the request and waits
+ * for the response. Throughput and p50/p95/p99/p99.9 latency are reported per endpoint and client count.
+ *
+ * Run with: ./mvnw -Pload verify -Dload.args="--users=1000 --clients=1,4,16,64 --duration=10"
+ *
+ * Options (all optional):
+ *   --users=N          synthetic users to seed (default 1000)
+ *   --clients=A,B,...  concurrent client counts to run, one phase each (default 1,4,16,64)
+ *   --warmup=S         warmup seconds per phase, not recorded (default 3)
+ *   --duration=S       measured seconds per phase (default 10)
+ *   --mix=E:W,...      endpoint weights (default status:60,subscribe:20,cancel:10,plans:5,eligibility:5)
+ *   any other --key=value is passed to the application, e.g. --spring.datasource.hikari.maximum-pool-size=20
+ *
+ * Latency is measured per request in a closed loop, so it understates tail latency when the server
+ * stalls (coordinated omission); compare runs with each other rather than against an SLA.
+ */
+public class LoadHarness {
+
+    enum Endpoint {
+        STATUS, SUBSCRIBE, CANCEL, PLANS, ELIGIBILITY
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final Long[] userIds;
+    private final Long[] silverPlanIds;
+    private final Long silverTierId;
+    private final Endpoint[] mixTable;
+
+    LoadHarness(String baseUrl, Long[] userIds, Long[] silverPlanIds, Long silverTierId, Endpoint[] mixTable) {
+        this.baseUrl = baseUrl;
+        this.userIds = userIds;
+        this.silverPlanIds = silverPlanIds;
+        this.silverTierId = silverTierId;
+        this.mixTable = mixTable;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.org.firstclub=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.springframework.web=WARN"));
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            switch (pair[0]) {
+                case "users", "clients", "warmup", "duration", "mix" -> options.put(pair[0], pair[1]);
+                default -> appArgs.add(arg);
+            }
+        }
+
+        int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        int[] clientCounts = Arrays.stream(options.getOrDefault("clients", "1,4,16,64").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "3"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "10"));
+        Endpoint[] mixTable = parseMix(options.getOrDefault("mix", "status:60,subscribe:20,cancel:10,plans:5,eligibility:5"));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FirstclubApplication.class)
+                .run(appArgs.toArray(new String[0]))) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            LoadHarness harness = seed(context, "http://localhost:" + port + "/api/membership", users, mixTable);
+
+            System.out.printf("%nFirstClub load test: %d users, %ds warmup + %ds per phase, %d CPUs%n",
+                    users, warmupSeconds, durationSeconds, Runtime.getRuntime().availableProcessors());
+            for (int clients : clientCounts) {
+                harness.runPhase(clients, Duration.ofSeconds(warmupSeconds), false);
+                Map<Endpoint, LatencySamples> results = harness.runPhase(clients, Duration.ofSeconds(durationSeconds), true);
+                report(clients, durationSeconds, results);
+            }
+        }
+    }
+
+    private static Endpoint[] parseMix(String mix) {
+        List<Endpoint> table = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.split(":");
+            Endpoint endpoint = Endpoint.valueOf(pair[0].trim().toUpperCase());
+            for (int i = 0; i < Integer.parseInt(pair[1].trim()); i++) {
+                table.add(endpoint);
+            }
+        }
+        return table.toArray(new Endpoint[0]);
+    }
+
+    private static LoadHarness seed(ConfigurableApplicationContext context, String baseUrl, int count, Endpoint[] mixTable) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setName("Load User " + i);
+            user.setEmail("load" + i + "@firstclub.test");
+            users.add(user);
+        }
+        Long[] userIds = context.getBean(UserRepository.class).saveAll(users).stream()
+                .map(User::getId).toArray(Long[]::new);
+
+        List<PlanPricing> silverPlans = context.getBean(PlanService.class).getAllPlans().stream()
+                .filter(pricing -> "Silver".equals(pricing.getTier().getName()))
+                .toList();
+        Long[] silverPlanIds = silverPlans.stream().map(PlanPricing::getId).toArray(Long[]::new);
+
+        List<SubscriptionRequest> requests = new ArrayList<>(count);
+        for (Long userId : userIds) {
+            SubscriptionRequest request = new SubscriptionRequest();
+            request.setUserId(userId);
+            request.setPlanPricingId(silverPlanIds[0]);
+            requests.add(request);
+        }
+        context.getBean(SubscriptionService.class).subscribeBatch(requests);
+
+        return new LoadHarness(baseUrl, userIds, silverPlanIds, silverPlans.get(0).getTier().getId(), mixTable);
+    }
+
+    Map<Endpoint, LatencySamples> runPhase(int clients, Duration duration, boolean record) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Map<Endpoint, LatencySamples>>> workers = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            workers.add(pool.submit(() -> drive(deadline)));
+        }
+
+        Map<Endpoint, LatencySamples> merged = new EnumMap<>(Endpoint.class);
+        for (Future<Map<Endpoint, LatencySamples>> worker : workers) {
+            worker.get().forEach((endpoint, samples) ->
+                    merged.computeIfAbsent(endpoint, e -> new LatencySamples()).addAll(samples));
+        }
+        pool.shutdown();
+        return record ? merged : Map.of();
+    }
+
+    private Map<Endpoint, LatencySamples> drive(long deadline) {
+        Map<Endpoint, LatencySamples> samples = new EnumMap<>(Endpoint.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Endpoint endpoint = mixTable[random.nextInt(mixTable.length)];
+            HttpRequest request = request(endpoint, userIds[random.nextInt(userIds.length)], random);
+            LatencySamples endpointSamples = samples.computeIfAbsent(endpoint, e -> new LatencySamples());
+
+            long start = System.nanoTime();
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                endpointSamples.record(System.nanoTime() - start, status);
+            } catch (IOException e) {
+                endpointSamples.recordFailure();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return samples;
+    }
+
+    private HttpRequest request(Endpoint endpoint, Long userId, ThreadLocalRandom random) {
+        return switch (endpoint) {
+            case STATUS -> get("/status/" + userId);
+            case PLANS -> get("/plans");
+            case ELIGIBILITY -> get("/eligibility/" + userId + "/" + silverTierId);
+            case CANCEL -> post("/cancel/" + userId, HttpRequest.BodyPublishers.noBody());
+            case SUBSCRIBE -> post("/subscribe", HttpRequest.BodyPublishers.ofString(
+                    "{\"userId\":" + userId + ",\"planPricingId\":" + silverPlanIds[random.nextInt(silverPlanIds.length)] + "}"));
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, HttpRequest.BodyPublisher body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(body)
+                .build();
+    }
+
+    private static void report(int clients, int durationSeconds, Map<Endpoint, LatencySamples> results) {
+        System.out.printf("%n--- %d concurrent clients ---%n", clients);
+        System.out.printf("%-12s %9s %9s %9s %9s %9s %9s %9s %7s %7s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "4xx", "errors");
+        LatencySamples total = new LatencySamples();
+        for (Map.Entry<Endpoint, LatencySamples> entry : results.entrySet()) {
+            print(entry.getKey().name().toLowerCase(), entry.getValue(), durationSeconds);
+            total.addAll(entry.getValue());
+        }
+        print("all", total, durationSeconds);
+    }
+
+    private static void print(String name, LatencySamples samples, int durationSeconds) {
+        long[] sorted = samples.sorted();
+        System.out.printf("%-12s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d%n",
+                name, sorted.length, (double) sorted.length / durationSeconds,
+                millis(LatencySamples.percentile(sorted, 0.50)),
+                millis(LatencySamples.percentile(sorted, 0.95)),
+                millis(LatencySamples.percentile(sorted, 0.99)),
+                millis(LatencySamples.percentile(sorted, 0.999)),
+                millis(sorted.length == 0 ? 0L : sorted[sorted.length - 1]),
+                samples.clientErrors(), samples.errors());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,136 @@
+package com.org.firstclub.repository;
+
+import com.org.firstclub.repository.enums.SubscriptionStatus;
+import com.org.firstclub.support.SqlStatementCounter;
+import com.org.firstclub.support.SqlStatementCounting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * H2 query plans of the hot repository queries, against the schema the migrations build. Each test
+ * captures the SQL Hibernate generates for a repository call and runs EXPLAIN on it, so a query or
+ * migration change that loses an index fails here instead of turning into a table scan in production.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "firstclub.expiry-sweeper.enabled=false",
+        "firstclub.catalog.refresh-interval-ms=3600000"
+})
+@Import(SqlStatementCounting.class)
+class QueryPlanTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 15);
+    private static final int USERS = 20_000;
+
+    @Autowired
+    private SqlStatementCounter sqlCounter;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Plans depend on table sizes; give the planner a realistic mix, half of it expired
+        if (jdbcTemplate.queryForObject("select count(*) from subscription", Long.class) > 0) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("insert into app_user (email, name, total_orders, total_spent)"
+                    + " select 'plan-' || x || '@example.com', 'User ' || x, 0, 0 from system_range(1, ?)", USERS);
+            jdbcTemplate.update("insert into subscription (id, user_id, current_tier_id, current_plan_id, start_date,"
+                            + " expiry_date, status, version)"
+                            + " select u.id, u.id, (select min(id) from tier), (select min(id) from plan_duration),"
+                            + " cast(? as date), case when mod(u.id, 2) = 0"
+                            + " then dateadd(day, -mod(u.id, 300), cast(? as date)) else cast(? as date) end, 'ACTIVE', 0"
+                            + " from app_user u",
+                    TODAY.minusYears(1), TODAY, TODAY.plusMonths(6));
+        });
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void findByUserIdAndStatus_UsesUserIndex() throws Exception {
+        String plan = explain(() -> subscriptionRepository.findByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE),
+                1L, "ACTIVE");
+
+        assertIndexed(plan, "UK_SUBSCRIPTION_USER");
+    }
+
+    @Test
+    void findWithBenefitsByUserIdAndStatus_UsesUserIndex() throws Exception {
+        String plan = explain(() -> subscriptionRepository.findWithBenefitsByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE),
+                1L, "ACTIVE");
+
+        assertIndexed(plan, "UK_SUBSCRIPTION_USER");
+    }
+
+    @Test
+    void findByUserIdIn_UsesIndex() throws Exception {
+        String plan = explain(() -> subscriptionRepository.findByUserIdIn(List.of(1L, 2L, 3L)), 1L, 2L, 3L);
+
+        assertIndexed(plan, "USER_ID IN(");
+    }
+
+    @Test
+    void findExpiredActive_ReadsStatusExpiryIndexInOrder() throws Exception {
+        String plan = explain(() -> subscriptionRepository.findExpiredActive(TODAY, Limit.of(1000)),
+                TODAY, 1000);
+
+        // Index order matches the ORDER BY: the chunk is read without sorting the whole backlog
+        assertIndexed(plan, "IDX_SUBSCRIPTION_STATUS_EXPIRY");
+        assertTrue(plan.contains("index sorted"), () -> "Expected no sort in plan:\n" + plan);
+    }
+
+    @Test
+    void expireActive_UsesPrimaryKey() throws Exception {
+        String plan = explain(() -> transactionTemplate.executeWithoutResult(
+                status -> subscriptionRepository.expireActive(List.of(1L, 2L), TODAY)), 1L, 2L, TODAY);
+
+        assertIndexed(plan, "PRIMARY_KEY");
+    }
+
+    @Test
+    void userPages_UsePrimaryKey() throws Exception {
+        assertIndexed(explain(() -> userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(100)), 0L, 100),
+                "ID > ?1");
+        assertIndexed(explain(() -> userRepository.findMetricsByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                0L, 500L, Limit.of(100)), 0L, 500L, 100), "ID > ?1");
+        assertIndexed(explain(() -> userRepository.findMetricsByIdInOrderByIdAsc(List.of(1L, 2L)), 1L, 2L),
+                "ID IN(");
+    }
+
+    // EXPLAIN the one statement the action runs, with the given values bound to its parameters
+    private String explain(SqlStatementCounter.ThrowingRunnable action, Object... parameters) throws Exception {
+        List<String> statements = sqlCounter.measure(action).statements();
+        assertEquals(1, statements.size(), () -> "Expected one statement but got " + statements);
+        return jdbcTemplate.queryForObject("EXPLAIN " + statements.get(0), String.class, parameters);
+    }
+
+    private static void assertIndexed(String plan, String expected) {
+        assertFalse(plan.contains("tableScan"), () -> "Table scan in plan:\n" + plan);
+        assertTrue(plan.contains(expected), () -> "Expected " + expected + " in plan:\n" + plan);
+    }
+}
@@ -0,0 +1,84 @@
+package com.org.firstclub.repository.dto;
+
+import com.org.firstclub.exception.InvalidRequestException;
+import com.org.firstclub.repository.entities.PlanDuration;
+import com.org.firstclub.repository.entities.Subscription;
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.repository.entities.User;
+import com.org.firstclub.repository.enums.SubscriptionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionResponseTest {
+
+    private Subscription subscription;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("user@firstclub.test");
+
+        Tier gold = new Tier();
+        gold.setId(2L);
+        gold.setName("Gold");
+        gold.setBenefits(Map.of("FREE_DELIVERY", "true", "DISCOUNT_PERCENT", "5"));
+
+        PlanDuration monthly = new PlanDuration();
+        monthly.setId(1L);
+        monthly.setName("Monthly");
+        monthly.setDurationInDays(30);
+
+        subscription = new Subscription();
+        subscription.setId(7L);
+        subscription.setUser(user);
+        subscription.setCurrentTier(gold);
+        subscription.setCurrentPlan(monthly);
+        subscription.setStatus(SubscriptionStatus.ACTIVE);
+        subscription.setStartDate(LocalDate.of(2025, 1, 1));
+        subscription.setExpiryDate(LocalDate.of(2025, 1, 31));
+        subscription.setVersion(3L);
+    }
+
+    @Test
+    void from_CopiesTierPlanAndDates() {
+        SubscriptionResponse response = SubscriptionResponse.from(subscription);
+
+        assertEquals(7L, response.id());
+        assertEquals(42L, response.userId());
+        assertEquals(SubscriptionStatus.ACTIVE, response.status());
+        assertEquals(2L, response.tierId());
+        assertEquals("Gold", response.tierName());
+        assertEquals("Monthly", response.planName());
+        assertEquals(LocalDate.of(2025, 1, 31), response.expiryDate());
+        assertEquals("5", response.benefits().get("DISCOUNT_PERCENT"));
+        assertThrows(UnsupportedOperationException.class, () -> response.benefits().put("X", "y"));
+    }
+
+    @Test
+    void parseFields_KeepsRequestOrder() {
+        assertEquals(List.of("expiryDate", "tierName"),
+                List.copyOf(SubscriptionResponse.parseFields(" expiryDate, tierName")));
+        assertTrue(SubscriptionResponse.parseFields(null).isEmpty());
+        assertTrue(SubscriptionResponse.parseFields("").isEmpty());
+    }
+
+    @Test
+    void parseFields_UnknownField() {
+        assertThrows(InvalidRequestException.class, () -> SubscriptionResponse.parseFields("tierName,version"));
+    }
+
+    @Test
+    void select_ReturnsOnlyRequestedFields() {
+        Map<String, Object> selected = SubscriptionResponse.from(subscription).select(Set.of("tierName"));
+
+        assertEquals(Map.of("tierName", "Gold"), selected);
+    }
+}
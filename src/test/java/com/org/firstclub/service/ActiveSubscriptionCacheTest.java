@@ -0,0 +1,101 @@
+package com.org.firstclub.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.org.firstclub.repository.entities.Subscription;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveSubscriptionCacheTest {
+
+    // 2025-01-15T12:00:00Z
+    private static final Instant NOW = Instant.parse("2025-01-15T12:00:00Z");
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ActiveSubscriptionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ActiveSubscriptionCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30),
+                ticker, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private Optional<Subscription> load(Subscription subscription) {
+        loads.incrementAndGet();
+        return Optional.ofNullable(subscription);
+    }
+
+    private static Subscription expiringOn(LocalDate expiryDate) {
+        Subscription subscription = new Subscription();
+        subscription.setId(1L);
+        subscription.setExpiryDate(expiryDate);
+        return subscription;
+    }
+
+    @Test
+    void get_CachesPositiveResultUntilTtl() {
+        Subscription subscription = expiringOn(LocalDate.of(2025, 6, 1));
+
+        cache.get(1L, id -> load(subscription));
+        cache.get(1L, id -> load(subscription));
+        assertEquals(1, loads.get());
+
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        cache.get(1L, id -> load(subscription));
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(2, cache.stats().missCount());
+    }
+
+    @Test
+    void get_CachesNegativeResultWithShorterTtl() {
+        assertTrue(cache.get(1L, id -> load(null)).isEmpty());
+        assertTrue(cache.get(1L, id -> load(null)).isEmpty());
+        assertEquals(1, loads.get());
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        cache.get(1L, id -> load(null));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_EntryNeverOutlivesSubscription() {
+        // Valid through 2025-01-15, i.e. 12 more hours, which is shorter than the 1-day TTL
+        Subscription endsToday = expiringOn(LocalDate.of(2025, 1, 15));
+        cache = new ActiveSubscriptionCache(100, Duration.ofDays(1), Duration.ofSeconds(30),
+                ticker, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        cache.get(1L, id -> load(endsToday));
+        nanos.addAndGet(Duration.ofHours(11).toNanos());
+        cache.get(1L, id -> load(endsToday));
+        assertEquals(1, loads.get());
+
+        nanos.addAndGet(Duration.ofHours(2).toNanos());
+        cache.get(1L, id -> load(endsToday));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_OutsideTransactionEvictsImmediately() {
+        Subscription subscription = expiringOn(LocalDate.of(2025, 6, 1));
+        cache.get(1L, id -> load(subscription));
+
+        cache.invalidate(1L);
+        cache.get(1L, id -> load(subscription));
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,150 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.dto.BulkEligibilityRequest;
+import com.org.firstclub.repository.dto.BulkEligibilityResult;
+import com.org.firstclub.repository.dto.UserMetrics;
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.service.eligibility.EligibilityEngine;
+import com.org.firstclub.service.eligibility.MinOrdersRule;
+import com.org.firstclub.service.eligibility.MinSpendRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkEligibilityServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CatalogService catalogService;
+
+    private EligibilityEngine engine;
+
+    private BulkEligibilityService bulkEligibilityService;
+
+    @BeforeEach
+    void setUp() {
+        when(catalogService.getSnapshot()).thenReturn(new CatalogSnapshot(
+                List.of(tier(1L, "Silver", 0, 0.0), tier(2L, "Gold", 5, 500.0), tier(3L, "Platinum", 20, 2000.0)),
+                List.of(), List.of()));
+        engine = new EligibilityEngine(catalogService, List.of(new MinOrdersRule(), new MinSpendRule()));
+        bulkEligibilityService = new BulkEligibilityService(userRepository, engine);
+    }
+
+    private static Tier tier(Long id, String name, int minOrders, double minOrderValue) {
+        Tier tier = new Tier();
+        tier.setId(id);
+        tier.setName(name);
+        tier.setMinOrders(minOrders);
+        tier.setMinOrderValue(minOrderValue);
+        return tier;
+    }
+
+    private static UserMetrics metrics(long id, int totalOrders, long totalSpent) {
+        return new UserMetrics() {
+            public Long getId() { return id; }
+            public Integer getTotalOrders() { return totalOrders; }
+            public BigDecimal getTotalSpent() { return BigDecimal.valueOf(totalSpent); }
+        };
+    }
+
+    @Test
+    void evaluate_ByIds() {
+        BulkEligibilityRequest request = new BulkEligibilityRequest();
+        request.setUserIds(List.of(1L, 2L, 3L));
+        when(userRepository.findMetricsByIdInOrderByIdAsc(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(metrics(1, 0, 0), metrics(2, 6, 0), metrics(3, 0, 2500)));
+
+        List<BulkEligibilityResult> results = new ArrayList<>();
+        bulkEligibilityService.evaluate(request, results::add);
+
+        assertEquals(3, results.size());
+        assertEquals(1L, results.get(0).getHighestTierId());
+        assertEquals(List.of(1L), results.get(0).getEligibleTierIds());
+        assertEquals("Gold", results.get(1).getHighestTierName());
+        assertEquals(List.of(1L, 2L), results.get(1).getEligibleTierIds());
+        assertEquals(List.of(1L, 2L, 3L), results.get(2).getEligibleTierIds());
+    }
+
+    @Test
+    void evaluate_UnsortedDuplicateIds_QueriedSortedOnce() {
+        BulkEligibilityRequest request = new BulkEligibilityRequest();
+        request.setUserIds(List.of(3L, 1L, 3L, 2L));
+        when(userRepository.findMetricsByIdInOrderByIdAsc(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(metrics(1, 0, 0), metrics(2, 6, 0), metrics(3, 0, 2500)));
+
+        List<Long> seen = new ArrayList<>();
+        bulkEligibilityService.evaluate(request, result -> seen.add(result.getUserId()));
+
+        assertEquals(List.of(1L, 2L, 3L), seen);
+    }
+
+    @Test
+    void evaluate_CatalogReloadedMidJob_KeepsInitialTiers() {
+        BulkEligibilityRequest request = new BulkEligibilityRequest();
+        request.setFromUserId(1L);
+        request.setToUserId(20_000L);
+
+        List<UserMetrics> firstChunk = LongStream.rangeClosed(1, BulkEligibilityService.CHUNK_SIZE)
+                .mapToObj(id -> metrics(id, 6, 0))
+                .collect(Collectors.toList());
+        long lastId = BulkEligibilityService.CHUNK_SIZE;
+        when(userRepository.findMetricsByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                0L, 20_000L, Limit.of(BulkEligibilityService.CHUNK_SIZE))).thenAnswer(invocation -> {
+            // Gold is dropped from the catalog after the job has started
+            when(catalogService.getSnapshot()).thenReturn(new CatalogSnapshot(
+                    List.of(tier(1L, "Silver", 0, 0.0), tier(3L, "Platinum", 20, 2000.0)), List.of(), List.of()));
+            return firstChunk;
+        });
+        when(userRepository.findMetricsByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                lastId, 20_000L, Limit.of(BulkEligibilityService.CHUNK_SIZE)))
+                .thenReturn(List.of(metrics(lastId + 1, 6, 0)));
+
+        List<BulkEligibilityResult> results = new ArrayList<>();
+        bulkEligibilityService.evaluate(request, results::add);
+
+        assertEquals(BulkEligibilityService.CHUNK_SIZE + 1, results.size());
+        assertTrue(results.stream().allMatch(result -> "Gold".equals(result.getHighestTierName())));
+        assertEquals(2, engine.rankedTiers().size());
+    }
+
+    @Test
+    void evaluate_ByRange_PagesThroughChunksInOrder() {
+        BulkEligibilityRequest request = new BulkEligibilityRequest();
+        request.setFromUserId(1L);
+        request.setToUserId(20_000L);
+
+        List<UserMetrics> firstChunk = LongStream.rangeClosed(1, BulkEligibilityService.CHUNK_SIZE)
+                .mapToObj(id -> metrics(id, (int) (id % 30), id % 3000))
+                .collect(Collectors.toList());
+        long lastId = BulkEligibilityService.CHUNK_SIZE;
+        when(userRepository.findMetricsByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                0L, 20_000L, Limit.of(BulkEligibilityService.CHUNK_SIZE))).thenReturn(firstChunk);
+        when(userRepository.findMetricsByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                lastId, 20_000L, Limit.of(BulkEligibilityService.CHUNK_SIZE)))
+                .thenReturn(List.of(metrics(lastId + 1, 0, 0)));
+
+        List<Long> seen = new ArrayList<>();
+        bulkEligibilityService.evaluate(request, result -> seen.add(result.getUserId()));
+
+        assertEquals(BulkEligibilityService.CHUNK_SIZE + 1, seen.size());
+        for (int i = 0; i < seen.size(); i++) {
+            assertEquals(i + 1L, seen.get(i));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.entities.PlanDuration;
+import com.org.firstclub.repository.entities.PlanPricing;
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.service.CatalogResponseCache.RenderedCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogResponseCacheTest {
+
+    @Mock
+    private CatalogService catalogService;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private CatalogResponseCache cache;
+    private Tier silverTier;
+    private PlanPricing silverMonthly;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogResponseCache(catalogService, objectMapper);
+
+        silverTier = new Tier();
+        silverTier.setId(1L);
+        silverTier.setName("Silver");
+        silverTier.setBenefits(new HashMap<>());
+
+        PlanDuration monthly = new PlanDuration();
+        monthly.setId(1L);
+        monthly.setName("Monthly");
+        monthly.setDurationInDays(30);
+
+        silverMonthly = new PlanPricing();
+        silverMonthly.setId(7L);
+        silverMonthly.setTier(silverTier);
+        silverMonthly.setPlanDuration(monthly);
+        silverMonthly.setPrice(new BigDecimal("9.99"));
+    }
+
+    private CatalogSnapshot snapshot() {
+        return new CatalogSnapshot(List.of(silverTier), List.of(silverMonthly.getPlanDuration()), List.of(silverMonthly));
+    }
+
+    @Test
+    void get_RendersJsonAndGzip() throws IOException {
+        CatalogSnapshot snapshot = snapshot();
+        when(catalogService.getSnapshot()).thenReturn(snapshot);
+
+        RenderedCatalog rendered = cache.get();
+
+        assertEquals(snapshot.getVersion(), rendered.version());
+        assertEquals(snapshot.getLastModified(), rendered.lastModified());
+        assertArrayEquals(objectMapper.writeValueAsBytes(snapshot.getPricings()), rendered.plans().identity());
+        assertArrayEquals(objectMapper.writeValueAsBytes(snapshot.getTiers()), rendered.tiers().identity());
+        assertArrayEquals(rendered.plans().identity(), gunzip(rendered.plans().gzip()));
+        assertArrayEquals(rendered.tiers().identity(), gunzip(rendered.tiers().gzip()));
+    }
+
+    @Test
+    void get_SameVersion_ReusesBodies() {
+        when(catalogService.getSnapshot()).thenReturn(snapshot(), snapshot());
+
+        RenderedCatalog first = cache.get();
+        RenderedCatalog second = cache.get();
+
+        // A reload with unchanged content is a new snapshot with the same version
+        assertSame(first, second);
+    }
+
+    @Test
+    void get_CatalogChanged_RendersAgain() {
+        when(catalogService.getSnapshot()).thenReturn(snapshot());
+        RenderedCatalog before = cache.get();
+
+        silverMonthly.setPrice(new BigDecimal("12.99"));
+        when(catalogService.getSnapshot()).thenReturn(snapshot());
+        RenderedCatalog after = cache.get();
+
+        assertNotEquals(before.version(), after.version());
+        assertTrue(new String(after.plans().identity()).contains("12.99"));
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
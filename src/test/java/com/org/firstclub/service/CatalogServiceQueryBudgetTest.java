@@ -0,0 +1,91 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.PlanDurationRepository;
+import com.org.firstclub.repository.PlanPricingRepository;
+import com.org.firstclub.repository.TierRepository;
+import com.org.firstclub.repository.entities.PlanDuration;
+import com.org.firstclub.repository.entities.PlanPricing;
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.support.SqlStatementCounter;
+import com.org.firstclub.support.SqlStatementCounting;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog-budget;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "firstclub.expiry-sweeper.enabled=false",
+        "firstclub.catalog.refresh-interval-ms=3600000"
+})
+@Import(SqlStatementCounting.class)
+class CatalogServiceQueryBudgetTest {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private SqlStatementCounter sqlCounter;
+
+    @Autowired
+    private TierRepository tierRepository;
+
+    @Autowired
+    private PlanDurationRepository planDurationRepository;
+
+    @Autowired
+    private PlanPricingRepository planPricingRepository;
+
+    @Test
+    void reload_RunsFixedNumberOfQueries_RegardlessOfCatalogSize() throws Exception {
+        SqlStatementCounter.Usage seeded = sqlCounter.measure(catalogService::reload);
+
+        addRegionalTiers(30);
+        SqlStatementCounter.Usage grown = sqlCounter.measure(catalogService::reload);
+
+        // Tiers with benefits, durations, pricings with tier and duration
+        seeded.assertStatementsAtMost(3);
+        assertEquals(seeded.statementCount(), grown.statementCount());
+
+        CatalogSnapshot snapshot = catalogService.getSnapshot();
+        assertEquals(33, snapshot.getTiers().size());
+        for (Tier tier : snapshot.getTiers()) {
+            assertTrue(Hibernate.isInitialized(tier.getBenefits()), tier.getName());
+        }
+        for (PlanPricing pricing : snapshot.getPricings()) {
+            assertTrue(Hibernate.isInitialized(pricing.getTier()), pricing.getId().toString());
+        }
+        assertEquals("2", snapshot.getTiers().get(32).getBenefits().get("DISCOUNT_PERCENT"));
+    }
+
+    private void addRegionalTiers(int count) {
+        List<PlanDuration> durations = planDurationRepository.findAll();
+        List<PlanPricing> pricings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Tier tier = new Tier();
+            tier.setName("Regional " + i);
+            tier.setMinOrders(i);
+            tier.setMinOrderValue(i * 100.0);
+            tier.getBenefits().putAll(Map.of("FREE_DELIVERY", "true", "DISCOUNT_PERCENT", "2"));
+            tier = tierRepository.save(tier);
+            for (PlanDuration duration : durations) {
+                PlanPricing pricing = new PlanPricing();
+                pricing.setTier(tier);
+                pricing.setPlanDuration(duration);
+                pricing.setPrice(BigDecimal.valueOf(100 + i));
+                pricings.add(pricing);
+            }
+        }
+        planPricingRepository.saveAll(pricings);
+    }
+}
@@ -0,0 +1,140 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.PlanDurationRepository;
+import com.org.firstclub.repository.PlanPricingRepository;
+import com.org.firstclub.repository.TierRepository;
+import com.org.firstclub.repository.entities.PlanDuration;
+import com.org.firstclub.repository.entities.PlanPricing;
+import com.org.firstclub.repository.entities.Tier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogServiceTest {
+
+    @Mock
+    private TierRepository tierRepository;
+
+    @Mock
+    private PlanDurationRepository planDurationRepository;
+
+    @Mock
+    private PlanPricingRepository planPricingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CatalogService catalogService;
+
+    private Tier silverTier;
+    private PlanDuration monthly;
+    private PlanPricing silverMonthly;
+
+    @BeforeEach
+    void setUp() {
+        catalogService = new CatalogService(tierRepository, planDurationRepository,
+                planPricingRepository, transactionManager);
+
+        silverTier = new Tier();
+        silverTier.setId(1L);
+        silverTier.setName("Silver");
+        silverTier.setBenefits(new HashMap<>());
+
+        monthly = new PlanDuration();
+        monthly.setId(1L);
+        monthly.setName("Monthly");
+        monthly.setDurationInDays(30);
+
+        silverMonthly = new PlanPricing();
+        silverMonthly.setId(7L);
+        silverMonthly.setTier(silverTier);
+        silverMonthly.setPlanDuration(monthly);
+        silverMonthly.setPrice(BigDecimal.valueOf(9.99));
+
+        when(tierRepository.findAllWithBenefits()).thenReturn(List.of(silverTier));
+        when(planDurationRepository.findAll()).thenReturn(List.of(monthly));
+        when(planPricingRepository.findAllWithTierAndDuration()).thenReturn(List.of(silverMonthly));
+    }
+
+    @Test
+    void getSnapshot_LoadsOnceAndIndexes() {
+        CatalogSnapshot first = catalogService.getSnapshot();
+        CatalogSnapshot second = catalogService.getSnapshot();
+
+        assertSame(first, second);
+        assertEquals(silverMonthly, first.findPricing(7L).orElseThrow());
+        assertEquals(silverMonthly, first.findPricing(1L, 1L).orElseThrow());
+        assertEquals(silverTier, first.findTier(1L).orElseThrow());
+        assertTrue(first.findPricing(1L, 2L).isEmpty());
+        verify(planPricingRepository, times(1)).findAllWithTierAndDuration();
+    }
+
+    @Test
+    void reload_SwapsSnapshot() {
+        CatalogSnapshot before = catalogService.getSnapshot();
+        when(planPricingRepository.findAllWithTierAndDuration()).thenReturn(List.of());
+
+        CatalogSnapshot after = catalogService.reload();
+
+        assertNotSame(before, after);
+        assertSame(after, catalogService.getSnapshot());
+        assertTrue(after.getPricings().isEmpty());
+        assertEquals(1, before.getPricings().size());
+    }
+
+    @Test
+    void reload_UnchangedContent_KeepsVersionAndLastModified() {
+        CatalogSnapshot before = catalogService.getSnapshot();
+
+        CatalogSnapshot after = catalogService.reload();
+
+        assertNotSame(before, after);
+        assertEquals(before.getVersion(), after.getVersion());
+        assertEquals(before.getLastModified(), after.getLastModified());
+    }
+
+    @Test
+    void reload_ChangedPriceOrBenefit_NewVersion() {
+        String initial = catalogService.getSnapshot().getVersion();
+
+        silverMonthly.setPrice(BigDecimal.valueOf(12.99));
+        String repriced = catalogService.reload().getVersion();
+        silverTier.getBenefits().put("FREE_DELIVERY", "true");
+        String withBenefit = catalogService.reload().getVersion();
+
+        assertNotEquals(initial, repriced);
+        assertNotEquals(repriced, withBenefit);
+        assertEquals(32, withBenefit.length());
+    }
+
+    @Test
+    void refresh_SwapsSnapshotOnlyWhenContentChanged() {
+        CatalogSnapshot before = catalogService.getSnapshot();
+
+        assertFalse(catalogService.refresh());
+        assertSame(before, catalogService.getSnapshot());
+
+        silverTier.setMinOrders(3);
+        assertTrue(catalogService.refresh());
+        assertNotEquals(before.getVersion(), catalogService.getSnapshot().getVersion());
+    }
+
+    @Test
+    void snapshot_IsImmutable() {
+        CatalogSnapshot snapshot = catalogService.getSnapshot();
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getTiers().clear());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getPricings().add(silverMonthly));
+    }
+}
@@ -0,0 +1,197 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.dto.UserMetricsChange;
+import com.org.firstclub.repository.dto.UserMetricsDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventAggregatorTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TierPromotionDetector tierPromotionDetector;
+
+    private OrderEventAggregator aggregator;
+
+    // What the fake database has applied so far, per user
+    private final Map<Long, long[]> applied = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new OrderEventAggregator(userRepository, tierPromotionDetector, 8, 3);
+    }
+
+    private void applyToFakeDatabase() {
+        lenient().when(userRepository.incrementMetrics(anyList())).thenAnswer(invocation -> {
+            List<UserMetricsDelta> deltas = invocation.getArgument(0);
+            List<UserMetricsChange> changes = new ArrayList<>();
+            for (UserMetricsDelta delta : deltas) {
+                long[] totals = applied.computeIfAbsent(delta.userId(), id -> new long[2]);
+                UserMetricsChange change = new UserMetricsChange(delta.userId(),
+                        (int) totals[0], BigDecimal.valueOf(totals[1], 2),
+                        (int) (totals[0] + delta.orders()), BigDecimal.valueOf(totals[1], 2).add(delta.spent()));
+                totals[0] += delta.orders();
+                totals[1] += delta.spent().movePointRight(2).longValueExact();
+                changes.add(change);
+            }
+            return changes;
+        });
+    }
+
+    @Test
+    void flush_CoalescesEventsPerUser() {
+        applyToFakeDatabase();
+        aggregator.record(1L, new BigDecimal("10.50"));
+        aggregator.record(1L, new BigDecimal("4.50"));
+        aggregator.record(2L, new BigDecimal("100"));
+
+        assertEquals(2, aggregator.pendingUsers());
+        assertEquals(2, aggregator.flush());
+
+        verify(userRepository, times(1)).incrementMetrics(anyList());
+        verify(tierPromotionDetector).onMetricsChanged(anyList());
+        assertArrayEquals(new long[]{2, 1500}, applied.get(1L));
+        assertArrayEquals(new long[]{1, 10000}, applied.get(2L));
+        assertEquals(0, aggregator.pendingUsers());
+    }
+
+    @Test
+    void flush_NothingPending_SkipsDatabase() {
+        assertEquals(0, aggregator.flush());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void flush_Failure_RequeuesDeltasForNextFlush() {
+        aggregator.record(1L, new BigDecimal("10.00"));
+        when(userRepository.incrementMetrics(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+
+        assertEquals(0, aggregator.flush());
+        assertEquals(1, aggregator.failedFlushes());
+        assertEquals(1, aggregator.pendingUsers());
+        verifyNoInteractions(tierPromotionDetector);
+
+        reset(userRepository);
+        applyToFakeDatabase();
+        aggregator.record(1L, new BigDecimal("5.00"));
+        aggregator.flush();
+
+        assertArrayEquals(new long[]{2, 1500}, applied.get(1L));
+    }
+
+    @Test
+    void flush_BadRow_OnlyHoldsBackItsUser_ThenDropped() {
+        applyToFakeDatabase();
+        // Any batch containing user 2 fails on its row; the rest go through the fake database
+        when(userRepository.incrementMetrics(argThat(deltas -> deltas != null
+                && deltas.stream().anyMatch(delta -> delta.userId() == 2L))))
+                .thenThrow(new DataIntegrityViolationException("numeric overflow"));
+        aggregator.record(1L, new BigDecimal("10.00"));
+        aggregator.record(2L, new BigDecimal("5.00"));
+
+        assertEquals(1, aggregator.flush());
+        assertArrayEquals(new long[]{1, 1000}, applied.get(1L));
+        assertEquals(1, aggregator.pendingUsers());
+
+        aggregator.record(1L, new BigDecimal("1.00"));
+        assertEquals(1, aggregator.flush());
+        assertArrayEquals(new long[]{2, 1100}, applied.get(1L));
+        assertEquals(1, aggregator.pendingUsers());
+
+        // Third failed flush for user 2: dropped instead of retried forever
+        assertEquals(0, aggregator.flush());
+        assertEquals(0, aggregator.pendingUsers());
+        assertEquals(1, aggregator.droppedDeltas());
+        assertNull(applied.get(2L));
+    }
+
+    @Test
+    void flush_UnknownUser_DropsDelta() {
+        aggregator.record(99L, new BigDecimal("1.00"));
+        when(userRepository.incrementMetrics(anyList())).thenReturn(List.of());
+
+        assertEquals(0, aggregator.flush());
+        assertEquals(1, aggregator.droppedDeltas());
+        assertEquals(0, aggregator.pendingUsers());
+    }
+
+    @Test
+    void flush_DetectionFailure_DoesNotRequeueCommittedDeltas() {
+        applyToFakeDatabase();
+        when(tierPromotionDetector.onMetricsChanged(anyList())).thenThrow(new IllegalStateException("boom"));
+        aggregator.record(1L, new BigDecimal("10.00"));
+
+        assertEquals(1, aggregator.flush());
+        assertEquals(0, aggregator.pendingUsers());
+        assertEquals(0, aggregator.flush());
+        assertArrayEquals(new long[]{1, 1000}, applied.get(1L));
+    }
+
+    @Test
+    void record_ConcurrentWithFlush_NeverLosesOrDoubleCounts() throws Exception {
+        applyToFakeDatabase();
+        int threads = 8;
+        int eventsPerThread = 20_000;
+        long users = 5; // few users so stripes are hot
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean producing = new AtomicBoolean(true);
+        List<Future<?>> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            producers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < eventsPerThread; i++) {
+                    aggregator.record(1L + (i % users), new BigDecimal("0.01"));
+                }
+                return null;
+            }));
+        }
+        Thread flusher = new Thread(() -> {
+            while (producing.get()) {
+                aggregator.flush();
+            }
+        });
+        flusher.start();
+        start.countDown();
+        for (Future<?> producer : producers) {
+            producer.get(30, TimeUnit.SECONDS);
+        }
+        producing.set(false);
+        flusher.join();
+        pool.shutdown();
+        aggregator.flush();
+
+        long totalOrders = applied.values().stream().mapToLong(totals -> totals[0]).sum();
+        long totalCents = applied.values().stream().mapToLong(totals -> totals[1]).sum();
+        assertEquals((long) threads * eventsPerThread, totalOrders);
+        assertEquals((long) threads * eventsPerThread, totalCents);
+        assertEquals((long) threads * eventsPerThread, aggregator.acceptedEvents());
+    }
+}
@@ -1,6 +1,5 @@
 package com.org.firstclub.service;
 
-import com.org.firstclub.repository.PlanPricingRepository;
 import com.org.firstclub.repository.entities.PlanDuration;
 import com.org.firstclub.repository.entities.PlanPricing;
 import com.org.firstclub.repository.entities.Tier;
@@ -12,7 +11,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,7 +20,7 @@ import static org.mockito.Mockito.*;
 class PlanServiceTest {
 
     @Mock
-    private PlanPricingRepository planPricingRepository;
+    private CatalogService catalogService;
 
     @InjectMocks
     private PlanService planService;
@@ -61,8 +59,10 @@ class PlanServiceTest {
 
     @Test
     void getAllPlans_Success() {
-        List<PlanPricing> plans = Arrays.asList(planPricing1, planPricing2);
-        when(planPricingRepository.findAll()).thenReturn(plans);
+        when(catalogService.getSnapshot()).thenReturn(new CatalogSnapshot(
+                List.of(planPricing1.getTier()),
+                List.of(planPricing1.getPlanDuration(), planPricing2.getPlanDuration()),
+                List.of(planPricing1, planPricing2)));
 
         List<PlanPricing> result = planService.getAllPlans();
 
@@ -70,18 +70,18 @@ class PlanServiceTest {
         assertEquals(2, result.size());
         assertEquals(planPricing1.getId(), result.get(0).getId());
         assertEquals(planPricing2.getId(), result.get(1).getId());
-        verify(planPricingRepository, times(1)).findAll();
+        verify(catalogService, times(1)).getSnapshot();
     }
 
     @Test
     void getAllPlans_EmptyList() {
-        when(planPricingRepository.findAll()).thenReturn(Arrays.asList());
+        when(catalogService.getSnapshot()).thenReturn(CatalogSnapshot.EMPTY);
 
         List<PlanPricing> result = planService.getAllPlans();
 
         assertNotNull(result);
         assertEquals(0, result.size());
-        verify(planPricingRepository, times(1)).findAll();
+        verify(catalogService, times(1)).getSnapshot();
     }
 }
 
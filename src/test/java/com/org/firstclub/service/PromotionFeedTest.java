@@ -0,0 +1,55 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.dto.TierPromotionEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromotionFeedTest {
+
+    private final PromotionFeed feed = new PromotionFeed(3);
+
+    private void publish(long userId) {
+        feed.publish(userId, 2L, "Gold", 5, new BigDecimal("500.00"));
+    }
+
+    @Test
+    void readAfter_ReturnsEventsAfterCursorInOrder() {
+        publish(10L);
+        publish(11L);
+
+        List<TierPromotionEvent> all = feed.readAfter(0L, 10);
+        assertEquals(2, all.size());
+        assertEquals(1L, all.get(0).getSequence());
+        assertEquals(10L, all.get(0).getUserId());
+
+        List<TierPromotionEvent> rest = feed.readAfter(1L, 10);
+        assertEquals(1, rest.size());
+        assertEquals(11L, rest.get(0).getUserId());
+        assertTrue(feed.readAfter(2L, 10).isEmpty());
+    }
+
+    @Test
+    void readAfter_RespectsLimit() {
+        publish(10L);
+        publish(11L);
+        publish(12L);
+
+        List<TierPromotionEvent> page = feed.readAfter(0L, 2);
+        assertEquals(List.of(1L, 2L), page.stream().map(TierPromotionEvent::getSequence).toList());
+    }
+
+    @Test
+    void readAfter_CursorOlderThanRetained_SkipsToOldest() {
+        for (long userId = 1; userId <= 5; userId++) {
+            publish(userId);
+        }
+
+        List<TierPromotionEvent> events = feed.readAfter(0L, 10);
+        assertEquals(List.of(3L, 4L, 5L), events.stream().map(TierPromotionEvent::getSequence).toList());
+        assertEquals(5L, feed.lastSequence());
+    }
+}
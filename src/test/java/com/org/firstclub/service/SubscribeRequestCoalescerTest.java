@@ -0,0 +1,185 @@
+package com.org.firstclub.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.org.firstclub.exception.IdempotencyKeyReuseException;
+import com.org.firstclub.exception.UserNotEligibleException;
+import com.org.firstclub.repository.entities.Subscription;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscribeRequestCoalescerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+
+    private SubscribeRequestCoalescer coalescer;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new SubscribeRequestCoalescer(Duration.ofMinutes(10), 1000, ticker);
+        executions = new AtomicInteger();
+    }
+
+    private Supplier<Subscription> subscribe(long id) {
+        return () -> {
+            executions.incrementAndGet();
+            Subscription subscription = new Subscription();
+            subscription.setId(id);
+            return subscription;
+        };
+    }
+
+    @Test
+    void execute_DuplicatesWhileRunning_ShareOneExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Subscription> slow = () -> {
+            started.countDown();
+            await(release);
+            return subscribe(7L).get();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Subscription> leader = executor.submit(() -> coalescer.execute(1L, 10L, null, slow));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            List<Future<Subscription>> duplicates = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                duplicates.add(executor.submit(() -> coalescer.execute(1L, 10L, null, slow)));
+            }
+            waitUntil(() -> coalescer.coalesced() == 3);
+            release.countDown();
+
+            Subscription result = leader.get(5, TimeUnit.SECONDS);
+            for (Future<Subscription> duplicate : duplicates) {
+                assertSame(result, duplicate.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, executions.get());
+        assertEquals(1, coalescer.executions());
+    }
+
+    @Test
+    void execute_FailureWhileRunning_SharedWithDuplicates() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Subscription> rejected = () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            throw new UserNotEligibleException("Not eligible");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Subscription> leader = executor.submit(() -> coalescer.execute(1L, 10L, null, rejected));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Subscription> duplicate = executor.submit(() -> coalescer.execute(1L, 10L, null, rejected));
+            waitUntil(() -> coalescer.coalesced() == 1);
+            release.countDown();
+
+            Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception duplicateFailure = assertThrows(Exception.class, () -> duplicate.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(UserNotEligibleException.class, leaderFailure.getCause());
+            assertInstanceOf(UserNotEligibleException.class, duplicateFailure.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_SequentialWithoutKey_RunsEachTime() {
+        coalescer.execute(1L, 10L, null, subscribe(1L));
+        coalescer.execute(1L, 10L, null, subscribe(2L));
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_DifferentPlans_NotCoalesced() {
+        coalescer.execute(1L, 10L, "key-a", subscribe(1L));
+        coalescer.execute(1L, 20L, "key-b", subscribe(2L));
+
+        assertEquals(2, executions.get());
+        assertEquals(0, coalescer.replayed());
+    }
+
+    @Test
+    void execute_RetryWithSameKey_ReplaysStoredResult() {
+        Subscription first = coalescer.execute(1L, 10L, "key", subscribe(1L));
+        Subscription retry = coalescer.execute(1L, 10L, "key", subscribe(2L));
+
+        assertSame(first, retry);
+        assertEquals(1, executions.get());
+        assertEquals(1, coalescer.replayed());
+    }
+
+    @Test
+    void execute_KeyReusedForOtherRequest_Rejected() {
+        coalescer.execute(1L, 10L, "key", subscribe(1L));
+
+        assertThrows(IdempotencyKeyReuseException.class, () -> coalescer.execute(1L, 20L, "key", subscribe(2L)));
+        assertThrows(IdempotencyKeyReuseException.class, () -> coalescer.execute(2L, 10L, "key", subscribe(3L)));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_FailureNotStored_RetryRunsAgain() {
+        assertThrows(UserNotEligibleException.class, () -> coalescer.execute(1L, 10L, "key", () -> {
+            throw new UserNotEligibleException("Not eligible");
+        }));
+
+        Subscription retry = coalescer.execute(1L, 10L, "key", subscribe(1L));
+
+        assertEquals(1L, retry.getId());
+        assertEquals(0, coalescer.replayed());
+    }
+
+    @Test
+    void execute_AfterWindow_RunsAgain() {
+        coalescer.execute(1L, 10L, "key", subscribe(1L));
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        Subscription retry = coalescer.execute(1L, 10L, "key", subscribe(2L));
+
+        assertEquals(2L, retry.getId());
+        assertEquals(2, executions.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitUntil(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.get()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for duplicates to join");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.SubscriptionRepository;
+import com.org.firstclub.repository.dto.ExpiringSubscription;
+import com.org.firstclub.service.journal.SubscriptionEventType;
+import com.org.firstclub.service.journal.SubscriptionJournal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionExpirySweeperTest {
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private SubscriptionJournal journal;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SubscriptionExpirySweeper sweeper;
+
+    private final LocalDate today = LocalDate.of(2025, 1, 15);
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new SubscriptionExpirySweeper(subscriptionRepository, journal, transactionManager, 2, 0);
+    }
+
+    private ExpiringSubscription expiring(long id) {
+        ExpiringSubscription subscription = mock(ExpiringSubscription.class);
+        lenient().when(subscription.getId()).thenReturn(id);
+        lenient().when(subscription.getUserId()).thenReturn(100 + id);
+        lenient().when(subscription.getTierId()).thenReturn(1L);
+        lenient().when(subscription.getPlanDurationId()).thenReturn(2L);
+        lenient().when(subscription.getStartDate()).thenReturn(today.minusDays(31));
+        lenient().when(subscription.getExpiryDate()).thenReturn(today.minusDays(1));
+        return subscription;
+    }
+
+    @Test
+    void sweep_ProcessesChunksUntilExhausted() {
+        List<ExpiringSubscription> first = List.of(expiring(1), expiring(2));
+        List<ExpiringSubscription> second = List.of(expiring(3), expiring(4));
+        List<ExpiringSubscription> third = List.of(expiring(5));
+        when(subscriptionRepository.findExpiredActive(today, Limit.of(2)))
+                .thenReturn(first)
+                .thenReturn(second)
+                .thenReturn(third);
+        when(subscriptionRepository.expireActive(anyCollection(), eq(today))).thenReturn(2, 2, 1);
+
+        int expired = sweeper.sweep(today);
+
+        assertEquals(5, expired);
+        verify(subscriptionRepository).expireActive(List.of(1L, 2L), today);
+        verify(subscriptionRepository).expireActive(List.of(3L, 4L), today);
+        verify(subscriptionRepository).expireActive(List.of(5L), today);
+        verify(transactionManager, times(3)).commit(any());
+        verify(journal, times(5)).record(eq(SubscriptionEventType.EXPIRE), anyLong(), anyLong(), eq(1L), isNull(),
+                eq(2L), eq(today.minusDays(31)), eq(today.minusDays(1)));
+        verify(subscriptionRepository, never()).findExpiredIdsIn(anyCollection());
+    }
+
+    @Test
+    void sweep_RenewedMeanwhile_NotJournalled() {
+        List<ExpiringSubscription> chunk = List.of(expiring(1), expiring(2));
+        when(subscriptionRepository.findExpiredActive(today, Limit.of(2))).thenReturn(chunk, List.of());
+        when(subscriptionRepository.expireActive(List.of(1L, 2L), today)).thenReturn(1);
+        when(subscriptionRepository.findExpiredIdsIn(List.of(1L, 2L))).thenReturn(List.of(1L));
+
+        sweeper.sweep(today);
+
+        verify(journal).record(eq(SubscriptionEventType.EXPIRE), eq(101L), eq(1L), anyLong(), isNull(),
+                anyLong(), any(), any());
+        verify(journal, never()).record(any(), anyLong(), eq(2L), anyLong(), any(), anyLong(), any(), any());
+    }
+
+    @Test
+    void sweep_CancelledMeanwhile_NotJournalled() {
+        List<ExpiringSubscription> chunk = List.of(expiring(1), expiring(2));
+        when(subscriptionRepository.findExpiredActive(today, Limit.of(2))).thenReturn(chunk, List.of());
+        // Subscription 2 was cancelled between the select and the update: neither ACTIVE nor EXPIRED
+        when(subscriptionRepository.expireActive(List.of(1L, 2L), today)).thenReturn(1);
+        when(subscriptionRepository.findExpiredIdsIn(List.of(1L, 2L))).thenReturn(List.of(1L));
+
+        sweeper.sweep(today);
+
+        verify(journal).record(eq(SubscriptionEventType.EXPIRE), eq(101L), eq(1L), anyLong(), isNull(),
+                anyLong(), any(), any());
+        verify(journal, never()).record(any(), anyLong(), eq(2L), anyLong(), any(), anyLong(), any(), any());
+    }
+
+    @Test
+    void sweep_NothingToExpire() {
+        when(subscriptionRepository.findExpiredActive(today, Limit.of(2))).thenReturn(List.of());
+
+        int expired = sweeper.sweep(today);
+
+        assertEquals(0, expired);
+        verify(subscriptionRepository, never()).expireActive(anyCollection(), any());
+        verifyNoInteractions(journal);
+    }
+}
@@ -0,0 +1,172 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.exception.ConcurrentUpdateException;
+import com.org.firstclub.exception.SubscriptionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionMutationGuardTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SubscriptionMutationGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new SubscriptionMutationGuard(transactionManager, 16, 3, 1);
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException("Subscription", 1L);
+    }
+
+    @Test
+    void execute_ConflictThenSuccess_RetriesInNewTransaction() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = guard.execute(1L, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, guard.conflicts());
+        assertEquals(2, guard.retries());
+        assertEquals(0, guard.exhausted());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void execute_ConflictsExhausted_ThrowsConcurrentUpdateException() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ConcurrentUpdateException.class, () -> guard.execute(1L, () -> {
+            attempts.incrementAndGet();
+            throw conflict();
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1, guard.exhausted());
+    }
+
+    @Test
+    void execute_BusinessException_NotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(SubscriptionException.class, () -> guard.execute(1L, () -> {
+            attempts.incrementAndGet();
+            throw new SubscriptionException("No active subscription");
+        }));
+
+        assertEquals(1, attempts.get());
+        assertEquals(0, guard.retries());
+    }
+
+    @Test
+    void execute_SameUser_MutationsNeverOverlap() throws Exception {
+        int threads = 8;
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50; i++) {
+                    guard.execute(42L, () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        Thread.yield();
+                        inside.decrementAndGet();
+                        return null;
+                    });
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(1, maxInside.get());
+        assertEquals(threads * 50L, guard.executions());
+    }
+
+    @Test
+    void executeAll_Conflict_ThrownWithoutRetry() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> guard.executeAll(List.of(1L, 2L), () -> {
+            attempts.incrementAndGet();
+            throw conflict();
+        }));
+
+        assertEquals(1, attempts.get());
+        assertEquals(1, guard.conflicts());
+        assertEquals(0, guard.retries());
+    }
+
+    @Test
+    void executeAll_OverlappingBatchesAndSingleMutations_NeverOverlap() throws Exception {
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        List<Future<?>> futures = new ArrayList<>();
+        for (List<Long> users : List.of(List.of(1L, 2L, 3L), List.of(3L, 2L, 1L), List.of(2L))) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50; i++) {
+                    Supplier<Object> mutation = () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        Thread.yield();
+                        inside.decrementAndGet();
+                        return null;
+                    };
+                    if (users.size() == 1) {
+                        guard.execute(users.get(0), mutation);
+                    } else {
+                        guard.executeAll(users, mutation);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(1, maxInside.get());
+    }
+}
@@ -3,24 +3,38 @@ package com.org.firstclub.service;
 import com.org.firstclub.exception.ResourceNotFoundException;
 import com.org.firstclub.exception.SubscriptionException;
 import com.org.firstclub.exception.UserNotEligibleException;
-import com.org.firstclub.repository.PlanPricingRepository;
 import com.org.firstclub.repository.SubscriptionRepository;
 import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.dto.BatchSubscriptionResult;
+import com.org.firstclub.repository.dto.SubscriptionRequest;
 import com.org.firstclub.repository.entities.*;
+import com.org.firstclub.repository.enums.SubscriptionStatus;
+import com.org.firstclub.service.eligibility.EligibilityEngine;
+import com.org.firstclub.service.eligibility.MinOrdersRule;
+import com.org.firstclub.service.eligibility.MinSpendRule;
+import com.org.firstclub.service.journal.SubscriptionEventType;
+import com.org.firstclub.service.journal.SubscriptionJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,12 +44,22 @@ class SubscriptionServiceTest {
     private SubscriptionRepository subscriptionRepository;
 
     @Mock
-    private PlanPricingRepository planPricingRepository;
+    private CatalogService catalogService;
 
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private SubscriptionJournal journal;
+
+    @Spy
+    private ActiveSubscriptionCache activeSubscriptionCache = new ActiveSubscriptionCache(100, 300, 30);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private SubscriptionService subscriptionService;
 
     private User testUser;
@@ -96,6 +120,20 @@ class SubscriptionServiceTest {
         goldYearly.setPlanDuration(yearlyDuration);
         goldYearly.setPrice(BigDecimal.valueOf(999));
 
+        // Catalog reads come from the in-memory snapshot, not the repository
+        lenient().when(catalogService.getSnapshot()).thenReturn(new CatalogSnapshot(
+                List.of(silverTier, goldTier),
+                List.of(monthlyDuration, yearlyDuration),
+                List.of(silverMonthly, goldYearly)));
+
+        EligibilityEngine eligibilityEngine = new EligibilityEngine(catalogService,
+                List.of(new MinOrdersRule(), new MinSpendRule()));
+        subscriptionService = new SubscriptionService(subscriptionRepository, catalogService, userRepository,
+                eligibilityEngine, entityManager, activeSubscriptionCache,
+                new SubscriptionMutationGuard(mock(PlatformTransactionManager.class), 16, 3, 0), meterRegistry,
+                new ReadYourWritesGuard(false, 0), new SubscribeRequestCoalescer(600, 1000),
+                journal);
+
         // Setup active subscription
         activeSubscription = new Subscription();
         activeSubscription.setId(1L);
@@ -111,15 +149,15 @@ class SubscriptionServiceTest {
     @Test
     void subscribe_NewSubscription_Success() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(planPricingRepository.findById(1L)).thenReturn(Optional.of(silverMonthly));
-        when(subscriptionRepository.findByUserAndStatus(testUser, SubscriptionStatus.ACTIVE))
-                .thenReturn(Optional.empty());
+        when(subscriptionRepository.findByUserId(1L)).thenReturn(Optional.empty());
         when(subscriptionRepository.save(any(Subscription.class))).thenReturn(activeSubscription);
 
         Subscription result = subscriptionService.subscribe(1L, 1L);
 
         assertNotNull(result);
         verify(subscriptionRepository, times(1)).save(any(Subscription.class));
+        // One lookup of the user's row decides between create, upgrade and reactivate
+        verify(subscriptionRepository, never()).findByUserIdAndStatus(any(), any());
     }
 
     @Test
@@ -136,13 +174,12 @@ class SubscriptionServiceTest {
     @Test
     void subscribe_PlanNotFound() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(planPricingRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             subscriptionService.subscribe(1L, 999L);
         });
 
-        verify(planPricingRepository, times(1)).findById(999L);
+        verify(subscriptionRepository, never()).save(any(Subscription.class));
     }
 
     @Test
@@ -153,19 +190,17 @@ class SubscriptionServiceTest {
         ineligibleUser.setTotalSpent(BigDecimal.ZERO);
 
         when(userRepository.findById(2L)).thenReturn(Optional.of(ineligibleUser));
-        when(planPricingRepository.findById(2L)).thenReturn(Optional.of(goldYearly));
 
         assertThrows(UserNotEligibleException.class, () -> {
             subscriptionService.subscribe(2L, 2L);
         });
+        assertEquals(1.0, meterRegistry.counter("firstclub.eligibility.rejections", "tier", goldTier.getName()).count());
     }
 
     @Test
     void subscribe_WithActiveSubscription_Upgrade() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(planPricingRepository.findById(2L)).thenReturn(Optional.of(goldYearly));
-        when(subscriptionRepository.findByUserAndStatus(testUser, SubscriptionStatus.ACTIVE))
-                .thenReturn(Optional.of(activeSubscription));
+        when(subscriptionRepository.findByUserId(1L)).thenReturn(Optional.of(activeSubscription));
         
         Subscription upgradedSubscription = new Subscription();
         upgradedSubscription.setId(1L);
@@ -180,6 +215,23 @@ class SubscriptionServiceTest {
 
         assertNotNull(result);
         verify(subscriptionRepository, times(1)).save(any(Subscription.class));
+        verify(journal).record(SubscriptionEventType.UPGRADE, upgradedSubscription, silverTier.getId());
+    }
+
+    @Test
+    void subscribe_AfterCancel_ReactivatesExistingSubscription() {
+        activeSubscription.setStatus(SubscriptionStatus.CANCELLED);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(subscriptionRepository.findByUserId(1L)).thenReturn(Optional.of(activeSubscription));
+        when(subscriptionRepository.save(activeSubscription)).thenReturn(activeSubscription);
+
+        Subscription result = subscriptionService.subscribe(1L, 2L);
+
+        // Same row reused: a second subscription for the user would violate the unique user_id
+        assertSame(activeSubscription, result);
+        assertEquals(SubscriptionStatus.ACTIVE, result.getStatus());
+        assertEquals(goldTier, result.getCurrentTier());
+        verify(journal).record(SubscriptionEventType.SUBSCRIBE, activeSubscription, silverTier.getId());
     }
 
     @Test
@@ -188,9 +240,10 @@ class SubscriptionServiceTest {
                 .thenReturn(Optional.of(activeSubscription));
         when(subscriptionRepository.save(any(Subscription.class))).thenReturn(activeSubscription);
 
-        subscriptionService.cancel(1L);
+        subscriptionService.cancelSubscription(1L);
 
         verify(subscriptionRepository, times(1)).save(any(Subscription.class));
+        verify(journal).record(SubscriptionEventType.CANCEL, activeSubscription, null);
     }
 
     @Test
@@ -199,44 +252,158 @@ class SubscriptionServiceTest {
                 .thenReturn(Optional.empty());
 
         assertThrows(SubscriptionException.class, () -> {
-            subscriptionService.cancel(1L);
+            subscriptionService.cancelSubscription(1L);
         });
     }
 
     @Test
     void getActiveSubscription_Success() {
-        when(subscriptionRepository.findByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE))
+        when(subscriptionRepository.findWithBenefitsByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE))
                 .thenReturn(Optional.of(activeSubscription));
 
         Subscription result = subscriptionService.getActiveSubscription(1L);
 
         assertNotNull(result);
         assertEquals(SubscriptionStatus.ACTIVE, result.getStatus());
-        verify(subscriptionRepository, times(1)).findByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE);
+        verify(subscriptionRepository, times(1)).findWithBenefitsByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE);
     }
 
     @Test
     void getActiveSubscription_Expired() {
         activeSubscription.setExpiryDate(LocalDate.now().minusDays(1));
-        when(subscriptionRepository.findByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE))
+        when(subscriptionRepository.findWithBenefitsByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE))
                 .thenReturn(Optional.of(activeSubscription));
-        when(subscriptionRepository.save(any(Subscription.class))).thenReturn(activeSubscription);
 
-        Subscription result = subscriptionService.getActiveSubscription(1L);
+        assertThrows(SubscriptionException.class, () -> {
+            subscriptionService.getActiveSubscription(1L);
+        });
 
-        assertNotNull(result);
-        assertEquals(SubscriptionStatus.EXPIRED, result.getStatus());
-        verify(subscriptionRepository, times(1)).save(any(Subscription.class));
+        // The read path never writes; the expiry sweeper updates the row
+        assertEquals(SubscriptionStatus.ACTIVE, activeSubscription.getStatus());
+        verify(subscriptionRepository, never()).save(any(Subscription.class));
+        assertEquals(1.0, meterRegistry.counter("firstclub.subscription.lazy.expirations").count());
     }
 
     @Test
     void getActiveSubscription_NotFound() {
-        when(subscriptionRepository.findByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE))
+        when(subscriptionRepository.findWithBenefitsByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE))
                 .thenReturn(Optional.empty());
 
         assertThrows(SubscriptionException.class, () -> {
             subscriptionService.getActiveSubscription(1L);
         });
     }
-}
 
+    @Test
+    void getActiveSubscription_ServedFromCache() {
+        when(subscriptionRepository.findWithBenefitsByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE))
+                .thenReturn(Optional.of(activeSubscription));
+
+        subscriptionService.getActiveSubscription(1L);
+        Subscription result = subscriptionService.getActiveSubscription(1L);
+
+        assertEquals(activeSubscription, result);
+        verify(subscriptionRepository, times(1)).findWithBenefitsByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE);
+    }
+
+    @Test
+    void cancel_InvalidatesCachedStatus() {
+        when(subscriptionRepository.findWithBenefitsByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE))
+                .thenReturn(Optional.of(activeSubscription));
+        when(subscriptionRepository.findByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE))
+                .thenReturn(Optional.of(activeSubscription));
+        subscriptionService.getActiveSubscription(1L);
+
+        subscriptionService.cancelSubscription(1L);
+
+        verify(activeSubscriptionCache).invalidate(1L);
+        subscriptionService.getActiveSubscription(1L);
+        verify(subscriptionRepository, times(2)).findWithBenefitsByUserIdAndStatus(1L, SubscriptionStatus.ACTIVE);
+    }
+
+    @Test
+    void subscribeBatch_PerItemResults() {
+        User poorUser = new User();
+        poorUser.setId(3L);
+        poorUser.setTotalOrders(0);
+        poorUser.setTotalSpent(BigDecimal.ZERO);
+
+        User newUser = new User();
+        newUser.setId(4L);
+        newUser.setTotalOrders(0);
+        newUser.setTotalSpent(BigDecimal.ZERO);
+
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(testUser, poorUser, newUser));
+        when(subscriptionRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(activeSubscription));
+
+        List<BatchSubscriptionResult> results = subscriptionService.subscribeBatch(List.of(
+                request(1L, 2L),   // upgrade of existing active subscription
+                request(3L, 2L),   // not eligible for gold
+                request(4L, 1L),   // new silver subscription
+                request(99L, 1L),  // unknown user
+                request(4L, 999L)  // unknown plan
+        ));
+
+        assertEquals(5, results.size());
+        assertEquals(BatchSubscriptionResult.Outcome.UPDATED, results.get(0).getOutcome());
+        assertEquals(1L, results.get(0).getSubscriptionId());
+        assertEquals(goldTier, activeSubscription.getCurrentTier());
+        assertEquals(BatchSubscriptionResult.Outcome.REJECTED, results.get(1).getOutcome());
+        assertEquals(BatchSubscriptionResult.Outcome.CREATED, results.get(2).getOutcome());
+        assertEquals(BatchSubscriptionResult.Outcome.REJECTED, results.get(3).getOutcome());
+        assertEquals(BatchSubscriptionResult.Outcome.REJECTED, results.get(4).getOutcome());
+        verify(userRepository, times(1)).findAllById(anyCollection());
+        verify(subscriptionRepository, times(1)).saveAll(argThat(created -> created.iterator().next().getUser() == newUser));
+        verify(subscriptionRepository, times(1)).flush();
+    }
+
+    @Test
+    void subscribeBatch_CancelledSubscription_Reactivated() {
+        activeSubscription.setStatus(SubscriptionStatus.CANCELLED);
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(testUser));
+        when(subscriptionRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(activeSubscription));
+
+        List<BatchSubscriptionResult> results = subscriptionService.subscribeBatch(List.of(request(1L, 2L)));
+
+        // Same outcome as the single subscribe: the user's row is reused, not rejected
+        assertEquals(BatchSubscriptionResult.Outcome.UPDATED, results.get(0).getOutcome());
+        assertEquals(1L, results.get(0).getSubscriptionId());
+        assertEquals(SubscriptionStatus.ACTIVE, activeSubscription.getStatus());
+        assertEquals(goldTier, activeSubscription.getCurrentTier());
+        verify(journal).record(SubscriptionEventType.SUBSCRIBE, activeSubscription, silverTier.getId());
+    }
+
+    @Test
+    void subscribeBatch_ChunkConflict_RetriedItemByItem() {
+        User secondUser = new User();
+        secondUser.setId(2L);
+        secondUser.setTotalOrders(0);
+        secondUser.setTotalSpent(BigDecimal.ZERO);
+
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(testUser, secondUser));
+        when(subscriptionRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(activeSubscription));
+        // The chunk flush fails, then the first item commits and the second still violates unique user_id
+        doThrow(new DataIntegrityViolationException("subscription.user_id"))
+                .doNothing()
+                .doThrow(new DataIntegrityViolationException("subscription.user_id"))
+                .when(subscriptionRepository).flush();
+
+        List<BatchSubscriptionResult> results = subscriptionService.subscribeBatch(List.of(
+                request(1L, 2L),
+                request(2L, 1L)));
+
+        assertEquals(BatchSubscriptionResult.Outcome.UPDATED, results.get(0).getOutcome());
+        assertEquals(1L, results.get(0).getSubscriptionId());
+        assertEquals(BatchSubscriptionResult.Outcome.FAILED, results.get(1).getOutcome());
+        assertNull(results.get(1).getSubscriptionId());
+        verify(subscriptionRepository, times(3)).flush();
+        verify(journal, times(1)).record(any(), any(Subscription.class), any());
+    }
+
+    private static SubscriptionRequest request(Long userId, Long planPricingId) {
+        SubscriptionRequest request = new SubscriptionRequest();
+        request.setUserId(userId);
+        request.setPlanPricingId(planPricingId);
+        return request;
+    }
+}
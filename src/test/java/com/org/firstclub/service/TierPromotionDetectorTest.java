@@ -0,0 +1,87 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.dto.TierPromotionEvent;
+import com.org.firstclub.repository.dto.UserMetricsChange;
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.service.eligibility.EligibilityEngine;
+import com.org.firstclub.service.eligibility.MinOrdersRule;
+import com.org.firstclub.service.eligibility.MinSpendRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TierPromotionDetectorTest {
+
+    @Mock
+    private CatalogService catalogService;
+
+    private PromotionFeed promotionFeed;
+    private TierPromotionDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        // Thresholds as seeded by DataSeeder
+        List<Tier> tiers = List.of(
+                tier(1L, "Silver", 0, 0.0),
+                tier(2L, "Gold", 5, 500.0),
+                tier(3L, "Platinum", 20, 2000.0));
+        lenient().when(catalogService.getSnapshot()).thenReturn(new CatalogSnapshot(tiers, List.of(), List.of()));
+
+        EligibilityEngine engine = new EligibilityEngine(catalogService, List.of(new MinOrdersRule(), new MinSpendRule()));
+        promotionFeed = new PromotionFeed(100);
+        detector = new TierPromotionDetector(engine, promotionFeed);
+    }
+
+    private static Tier tier(Long id, String name, int minOrders, double minOrderValue) {
+        Tier tier = new Tier();
+        tier.setId(id);
+        tier.setName(name);
+        tier.setMinOrders(minOrders);
+        tier.setMinOrderValue(minOrderValue);
+        return tier;
+    }
+
+    private static UserMetricsChange change(Long userId, int previousOrders, String previousSpent,
+                                            int totalOrders, String totalSpent) {
+        return new UserMetricsChange(userId, previousOrders, new BigDecimal(previousSpent),
+                totalOrders, new BigDecimal(totalSpent));
+    }
+
+    @Test
+    void onMetricsChanged_CrossingThreshold_PublishesPromotion() {
+        int published = detector.onMetricsChanged(List.of(change(7L, 4, "300.00", 5, "320.00")));
+
+        assertEquals(1, published);
+        TierPromotionEvent event = promotionFeed.readAfter(0L, 10).get(0);
+        assertEquals(7L, event.getUserId());
+        assertEquals("Gold", event.getTierName());
+        assertEquals(5, event.getTotalOrders());
+    }
+
+    @Test
+    void onMetricsChanged_CrossingSeveralThresholds_PublishesEachTier() {
+        detector.onMetricsChanged(List.of(change(7L, 1, "100.00", 2, "2100.00")));
+
+        assertEquals(List.of("Gold", "Platinum"),
+                promotionFeed.readAfter(0L, 10).stream().map(TierPromotionEvent::getTierName).toList());
+    }
+
+    @Test
+    void onMetricsChanged_AlreadyEligible_PublishesNothing() {
+        int published = detector.onMetricsChanged(List.of(
+                change(7L, 6, "600.00", 7, "650.00"),
+                change(8L, 0, "0.00", 1, "10.00")));
+
+        assertEquals(0, published);
+        assertEquals(0L, promotionFeed.lastSequence());
+    }
+}
@@ -1,19 +1,19 @@
 package com.org.firstclub.service;
 
 import com.org.firstclub.exception.ResourceNotFoundException;
-import com.org.firstclub.repository.TierRepository;
 import com.org.firstclub.repository.UserRepository;
 import com.org.firstclub.repository.entities.Tier;
 import com.org.firstclub.repository.entities.User;
+import com.org.firstclub.service.eligibility.EligibilityEngine;
+import com.org.firstclub.service.eligibility.MinOrdersRule;
+import com.org.firstclub.service.eligibility.MinSpendRule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
@@ -25,12 +25,11 @@ import static org.mockito.Mockito.*;
 class TierServiceTest {
 
     @Mock
-    private TierRepository tierRepository;
+    private CatalogService catalogService;
 
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
     private TierService tierService;
 
     private Tier silverTier;
@@ -67,65 +66,59 @@ class TierServiceTest {
         ineligibleUser.setEmail("ineligible@example.com");
         ineligibleUser.setTotalOrders(2);
         ineligibleUser.setTotalSpent(BigDecimal.valueOf(100));
+
+        lenient().when(catalogService.getSnapshot())
+                .thenReturn(new CatalogSnapshot(List.of(silverTier, goldTier), List.of(), List.of()));
+
+        EligibilityEngine eligibilityEngine = new EligibilityEngine(catalogService,
+                List.of(new MinOrdersRule(), new MinSpendRule()));
+        tierService = new TierService(catalogService, userRepository, eligibilityEngine,
+                new ReadYourWritesGuard(false, 0));
     }
 
     @Test
     void getAllTiers_Success() {
-        List<Tier> tiers = Arrays.asList(silverTier, goldTier);
-        when(tierRepository.findAll()).thenReturn(tiers);
-
         List<Tier> result = tierService.getAllTiers();
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(tierRepository, times(1)).findAll();
+        verify(catalogService, times(1)).getSnapshot();
     }
 
     @Test
     void getTierById_Success() {
-        when(tierRepository.findById(1L)).thenReturn(Optional.of(silverTier));
-
         Tier result = tierService.getTierById(1L);
 
         assertNotNull(result);
         assertEquals(silverTier.getId(), result.getId());
         assertEquals(silverTier.getName(), result.getName());
-        verify(tierRepository, times(1)).findById(1L);
     }
 
     @Test
     void getTierById_NotFound() {
-        when(tierRepository.findById(999L)).thenReturn(Optional.empty());
-
         assertThrows(ResourceNotFoundException.class, () -> {
             tierService.getTierById(999L);
         });
-
-        verify(tierRepository, times(1)).findById(999L);
     }
 
     @Test
     void checkUserEligibility_EligibleUser() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(eligibleUser));
-        when(tierRepository.findById(2L)).thenReturn(Optional.of(goldTier));
 
         boolean result = tierService.checkUserEligibility(1L, 2L);
 
         assertTrue(result);
         verify(userRepository, times(1)).findById(1L);
-        verify(tierRepository, times(1)).findById(2L);
     }
 
     @Test
     void checkUserEligibility_IneligibleUser() {
         when(userRepository.findById(2L)).thenReturn(Optional.of(ineligibleUser));
-        when(tierRepository.findById(2L)).thenReturn(Optional.of(goldTier));
 
         boolean result = tierService.checkUserEligibility(2L, 2L);
 
         assertFalse(result);
         verify(userRepository, times(1)).findById(2L);
-        verify(tierRepository, times(1)).findById(2L);
     }
 
     @Test
@@ -142,14 +135,12 @@ class TierServiceTest {
     @Test
     void checkUserEligibility_TierNotFound() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(eligibleUser));
-        when(tierRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             tierService.checkUserEligibility(1L, 999L);
         });
 
         verify(userRepository, times(1)).findById(1L);
-        verify(tierRepository, times(1)).findById(999L);
     }
 }
 
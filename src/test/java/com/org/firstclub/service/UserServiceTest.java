@@ -0,0 +1,89 @@
+package com.org.firstclub.service;
+
+import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.dto.CursorPage;
+import com.org.firstclub.repository.entities.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ReadYourWritesGuard readYourWrites = new ReadYourWritesGuard(false, 0);
+
+    @InjectMocks
+    private UserService userService;
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        return user;
+    }
+
+    @Test
+    void getUsers_FullPage_ReturnsNextCursor() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(user(1), user(2)));
+
+        CursorPage<User> page = userService.getUsers(null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(2L, page.getNextCursor());
+    }
+
+    @Test
+    void getUsers_LastPage_HasNoCursor() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(2)))
+                .thenReturn(List.of(user(3)));
+
+        CursorPage<User> page = userService.getUsers(2L, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getUsers_ClampsPageSize() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(UserService.MAX_PAGE_SIZE)))
+                .thenReturn(List.of());
+
+        userService.getUsers(null, 1_000_000);
+
+        verify(userRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(UserService.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    void streamUsers_DetachesEachRow() {
+        User first = user(1);
+        User second = user(2);
+        when(userRepository.streamAllOrderById()).thenReturn(Stream.of(first, second));
+
+        List<User> seen = new ArrayList<>();
+        userService.streamUsers(seen::add);
+
+        assertEquals(List.of(first, second), seen);
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+}
@@ -0,0 +1,162 @@
+package com.org.firstclub.service.eligibility;
+
+import com.org.firstclub.repository.entities.Tier;
+import com.org.firstclub.repository.entities.User;
+import com.org.firstclub.service.CatalogService;
+import com.org.firstclub.service.CatalogSnapshot;
+import com.org.firstclub.utils.CommonUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EligibilityEngineTest {
+
+    @Mock
+    private CatalogService catalogService;
+
+    @Mock
+    private CatalogSnapshot snapshot;
+
+    private EligibilityEngine engine;
+
+    private Tier silverTier;
+    private Tier goldTier;
+    private Tier platinumTier;
+
+    @BeforeEach
+    void setUp() {
+        silverTier = tier(1L, "Silver", 0, 0.0);
+        goldTier = tier(2L, "Gold", 5, 500.0);
+        platinumTier = tier(3L, "Platinum", 20, 2000.0);
+
+        // Deliberately unsorted: the engine ranks tiers itself
+        lenient().when(snapshot.getTiers()).thenReturn(List.of(platinumTier, silverTier, goldTier));
+        lenient().when(catalogService.getSnapshot()).thenReturn(snapshot);
+
+        engine = new EligibilityEngine(catalogService, List.of(new MinOrdersRule(), new MinSpendRule()));
+    }
+
+    private static Tier tier(Long id, String name, int minOrders, double minOrderValue) {
+        Tier tier = new Tier();
+        tier.setId(id);
+        tier.setName(name);
+        tier.setMinOrders(minOrders);
+        tier.setMinOrderValue(minOrderValue);
+        return tier;
+    }
+
+    private static User user(int totalOrders, String totalSpent) {
+        User user = new User();
+        user.setTotalOrders(totalOrders);
+        user.setTotalSpent(new BigDecimal(totalSpent));
+        return user;
+    }
+
+    @Test
+    void rankedTiers_OrderedByThresholds() {
+        assertEquals(List.of(silverTier, goldTier, platinumTier), engine.rankedTiers());
+    }
+
+    @Test
+    void eligibleTierMask_OrLogicAcrossRules() {
+        assertEquals(0b001L, engine.eligibleTierMask(0, BigDecimal.ZERO));
+        assertEquals(0b011L, engine.eligibleTierMask(5, BigDecimal.ZERO));
+        assertEquals(0b011L, engine.eligibleTierMask(0, new BigDecimal("500")));
+        assertEquals(0b111L, engine.eligibleTierMask(3, new BigDecimal("2000")));
+        assertEquals(0b111L, engine.eligibleTierMask(20, BigDecimal.ZERO));
+    }
+
+    @Test
+    void highestEligibleTier() {
+        assertEquals(silverTier, engine.highestEligibleTier(user(4, "499.99")).orElseThrow());
+        assertEquals(goldTier, engine.highestEligibleTier(user(19, "1999.99")).orElseThrow());
+        assertEquals(platinumTier, engine.highestEligibleTier(user(0, "2500")).orElseThrow());
+    }
+
+    @Test
+    void highestEligibleTier_NoneWhenNoTierAdmits() {
+        Tier gated = tier(9L, "Gated", 1, 100.0);
+        when(snapshot.getTiers()).thenReturn(List.of(gated));
+
+        assertTrue(engine.highestEligibleTier(0, BigDecimal.ZERO).isEmpty());
+    }
+
+    @Test
+    void isEligible_MatchesCommonUtils() {
+        CommonUtils commonUtils = new CommonUtils();
+        int[] orders = {0, 4, 5, 6, 19, 20, 21};
+        String[] spends = {"0", "499.99", "500", "500.01", "1999.99", "2000", "2000.01"};
+
+        for (int totalOrders : orders) {
+            for (String spent : spends) {
+                User user = user(totalOrders, spent);
+                for (Tier tier : List.of(silverTier, goldTier, platinumTier)) {
+                    assertEquals(commonUtils.isEligible(user, tier), engine.isEligible(user, tier.getId()),
+                            () -> tier.getName() + " orders=" + totalOrders + " spent=" + spent);
+                }
+            }
+        }
+    }
+
+    @Test
+    void isEligible_SpendAtThreshold_MatchesCommonUtilsToTheCent() {
+        CommonUtils commonUtils = new CommonUtils();
+        // 1000.10 is not exact as a double; the largest value's neighbours collapse into one double
+        Tier oddCents = tier(4L, "Odd Cents", 1000, 1000.10);
+        Tier huge = tier(5L, "Huge", 1000, 100000000000000.02);
+        when(snapshot.getTiers()).thenReturn(List.of(silverTier, oddCents, huge));
+        String[] spends = {"1000.09", "1000.10", "1000.11", "100000000000000.01", "100000000000000.02"};
+
+        for (String spent : spends) {
+            User user = user(0, spent);
+            for (Tier tier : List.of(oddCents, huge)) {
+                assertEquals(commonUtils.isEligible(user, tier), engine.isEligible(user, tier.getId()),
+                        () -> tier.getName() + " spent=" + spent);
+            }
+        }
+        assertTrue(engine.isEligible(user(0, "1000.10"), 4L));
+        assertFalse(engine.isEligible(user(0, "100000000000000.01"), 5L));
+        assertTrue(engine.isEligible(user(0, "100000000000000.02"), 5L));
+    }
+
+    @Test
+    void isEligible_UnknownTier() {
+        assertFalse(engine.isEligible(user(100, "100000"), 42L));
+    }
+
+    @Test
+    void recompilesWhenSnapshotChanges() {
+        assertTrue(engine.isEligible(user(5, "0"), 2L));
+
+        CatalogSnapshot reloaded = mock(CatalogSnapshot.class);
+        Tier stricterGold = tier(2L, "Gold", 10, 1000.0);
+        when(reloaded.getTiers()).thenReturn(List.of(silverTier, stricterGold, platinumTier));
+        when(catalogService.getSnapshot()).thenReturn(reloaded);
+
+        assertFalse(engine.isEligible(user(5, "0"), 2L));
+    }
+
+    @Test
+    void newlyEligibleTiers_ReturnsOnlyTiersGained() {
+        // Spend crosses Gold (500) but not Platinum (2000)
+        assertEquals(List.of(goldTier), engine.newlyEligibleTiers(2, new BigDecimal("450"), 3, new BigDecimal("550")));
+        // Jump straight past both thresholds
+        assertEquals(List.of(goldTier, platinumTier), engine.newlyEligibleTiers(
+                1, new BigDecimal("10"), 2, new BigDecimal("2500")));
+    }
+
+    @Test
+    void newlyEligibleTiers_NoThresholdCrossed_ReturnsEmpty() {
+        assertTrue(engine.newlyEligibleTiers(6, new BigDecimal("600"), 7, new BigDecimal("700")).isEmpty());
+        assertTrue(engine.newlyEligibleTiers(0, BigDecimal.ZERO, 1, new BigDecimal("10")).isEmpty());
+    }
+}
@@ -0,0 +1,165 @@
+package com.org.firstclub.service.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionJournalTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 15);
+
+    @TempDir
+    Path directory;
+
+    private final List<SubscriptionJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(SubscriptionJournal::close);
+    }
+
+    private SubscriptionJournal open(int segmentRecords) {
+        SubscriptionJournal journal = new SubscriptionJournal(directory, segmentRecords);
+        opened.add(journal);
+        return journal;
+    }
+
+    private static long append(SubscriptionJournal journal, SubscriptionEventType type, long userId) {
+        return journal.append(type, userId, 1000 + userId, 2L, type == SubscriptionEventType.UPGRADE ? 1L : null,
+                3L, START, START.plusDays(30));
+    }
+
+    private List<SubscriptionEvent> readAll() {
+        List<SubscriptionEvent> events = new ArrayList<>();
+        new SubscriptionJournalReader(directory).replay(1, events::add);
+        return events;
+    }
+
+    @Test
+    void append_ReplaysInOrderAcrossSegments() throws IOException {
+        SubscriptionJournal journal = open(4);
+        for (long userId = 1; userId <= 10; userId++) {
+            assertEquals(userId, append(journal, userId % 2 == 0 ? SubscriptionEventType.UPGRADE
+                    : SubscriptionEventType.SUBSCRIBE, userId));
+        }
+        journal.flush();
+
+        List<SubscriptionEvent> events = readAll();
+
+        assertEquals(10, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i + 1, events.get(i).sequence());
+        }
+        SubscriptionEvent upgrade = events.get(1);
+        assertEquals(SubscriptionEventType.UPGRADE, upgrade.type());
+        assertEquals(2L, upgrade.userId());
+        assertEquals(1002L, upgrade.subscriptionId());
+        assertEquals(2L, upgrade.tierId());
+        assertEquals(1L, upgrade.previousTierId());
+        assertEquals(3L, upgrade.planDurationId());
+        assertEquals(START, upgrade.startDate());
+        assertEquals(START.plusDays(30), upgrade.expiryDate());
+        assertNull(events.get(0).previousTierId());
+
+        assertEquals(10, journal.durableSequence());
+        assertEquals(1, journal.flushes());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.filter(file -> file.toString().endsWith(".journal")).count());
+        }
+    }
+
+    @Test
+    void reopen_ContinuesSequence() {
+        SubscriptionJournal first = open(4);
+        for (long userId = 1; userId <= 5; userId++) {
+            append(first, SubscriptionEventType.SUBSCRIBE, userId);
+        }
+        first.close();
+
+        SubscriptionJournal second = open(4);
+        assertEquals(6, append(second, SubscriptionEventType.CANCEL, 1));
+        second.flush();
+
+        List<SubscriptionEvent> events = readAll();
+        assertEquals(6, events.size());
+        assertEquals(SubscriptionEventType.CANCEL, events.get(5).type());
+    }
+
+    @Test
+    void reopen_TornRecord_ClearedAndOverwritten() throws IOException {
+        SubscriptionJournal first = open(8);
+        for (long userId = 1; userId <= 3; userId++) {
+            append(first, SubscriptionEventType.SUBSCRIBE, userId);
+        }
+        first.close();
+
+        // A crash mid-write: the third record's body does not match its checksum
+        Path segment = directory.resolve(JournalFormat.segmentName(1));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {42}), 2L * JournalFormat.RECORD_SIZE + 30);
+        }
+        assertEquals(2, readAll().size());
+
+        SubscriptionJournal second = open(8);
+        assertEquals(3, append(second, SubscriptionEventType.EXPIRE, 9));
+        second.flush();
+
+        List<SubscriptionEvent> events = readAll();
+        assertEquals(3, events.size());
+        assertEquals(SubscriptionEventType.EXPIRE, events.get(2).type());
+        assertEquals(9L, events.get(2).userId());
+    }
+
+    @Test
+    void cursor_FollowsNewEventsAcrossSegments() {
+        SubscriptionJournal journal = open(2);
+        SubscriptionJournalReader.Cursor cursor = new SubscriptionJournalReader(directory).cursor(1);
+        List<SubscriptionEvent> seen = new ArrayList<>();
+
+        assertEquals(0, cursor.poll(seen::add));
+
+        append(journal, SubscriptionEventType.SUBSCRIBE, 1);
+        assertEquals(1, cursor.poll(seen::add));
+
+        append(journal, SubscriptionEventType.RENEW, 1);
+        append(journal, SubscriptionEventType.DOWNGRADE, 1);
+        append(journal, SubscriptionEventType.CANCEL, 1);
+        assertEquals(3, cursor.poll(seen::add));
+
+        assertEquals(0, cursor.poll(seen::add));
+        assertEquals(5, cursor.nextSequence());
+        assertEquals(List.of(SubscriptionEventType.SUBSCRIBE, SubscriptionEventType.RENEW,
+                        SubscriptionEventType.DOWNGRADE, SubscriptionEventType.CANCEL),
+                seen.stream().map(SubscriptionEvent::type).toList());
+    }
+
+    @Test
+    void open_DirectoryInUse_Fails() {
+        open(4);
+
+        assertThrows(IllegalStateException.class, () -> new SubscriptionJournal(directory, 4));
+    }
+
+    @Test
+    void disabled_WritesNothing() {
+        SubscriptionJournal journal = new SubscriptionJournal(false, directory.resolve("off"), 64);
+
+        journal.record(SubscriptionEventType.SUBSCRIBE, 1L, 2L, 3L, null, 4L, START, START.plusDays(30));
+
+        assertEquals(0, journal.appended());
+        assertFalse(Files.exists(directory.resolve("off")));
+    }
+}
@@ -0,0 +1,260 @@
+package com.org.firstclub.startup;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup benchmark for the packaged application: time from launching a fresh JVM until the application
+ * reports ready (GET /actuator/health/readiness returns 200, i.e. after DataSeeder has run), and the
+ * latency of the first GET /status request it then serves.
+ *
+ * Every run starts a new process, so class loading, JIT warm-up and context refresh are all included;
+ * that is what an autoscaled instance pays before it can take traffic.
+ *
+ * Run with: ./mvnw -Pfast-startup,startup verify [-Dstartup.args="--runs=10"]
+ *
+ * Modes (each skipped if its artifact is missing or older than the jar):
+ *   jar      the executable jar, java -jar
+ *   aot      the extracted jar with -Dspring.aot.enabled=true (fast-startup build)
+ *   cds      the extracted jar with the CDS archive recorded by the fast-startup build
+ *   aot-cds  both
+ *
+ * Options (all optional):
+ *   --runs=N          launches per mode (default 5)
+ *   --modes=M,...     modes to run (default jar,aot,cds,aot-cds)
+ *   --jar=PATH        executable jar (default target/firstclub-0.0.1-SNAPSHOT.jar)
+ *   --extracted=DIR   fast-startup directory (default target/fast-startup)
+ *   --out=PATH        medians per mode, as JSON (default target/startup-result.json)
+ *   --baseline=PATH   earlier --out file; exit with status 1 if a mode's median time to ready is more
+ *                     than --tolerance percent (default 15) above it
+ *   any other --key=value is passed to the application
+ */
+public class StartupBenchmark {
+
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(120);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private final Path jar;
+    private final Path extracted;
+    private final List<String> appArgs;
+
+    StartupBenchmark(Path jar, Path extracted, List<String> appArgs) {
+        this.jar = jar;
+        this.extracted = extracted;
+        this.appArgs = appArgs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.org.firstclub=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.springframework.web=WARN"));
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            switch (pair[0]) {
+                case "runs", "modes", "jar", "extracted", "out", "baseline", "tolerance" -> options.put(pair[0], pair[1]);
+                default -> appArgs.add(arg);
+            }
+        }
+
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", "jar,aot,cds,aot-cds").split(","));
+        StartupBenchmark benchmark = new StartupBenchmark(
+                Path.of(options.getOrDefault("jar", "target/firstclub-0.0.1-SNAPSHOT.jar")),
+                Path.of(options.getOrDefault("extracted", "target/fast-startup")),
+                appArgs);
+
+        System.out.printf("%n=== startup: %d runs per mode, Java %d, %d CPUs ===%n",
+                runs, Runtime.version().feature(), Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %10s %10s %10s %14s%n", "mode", "ready p50", "ready min", "ready max", "first /status");
+
+        ObjectMapper mapper = JsonMapper.builder().build();
+        ObjectNode result = mapper.createObjectNode();
+        for (String mode : modes) {
+            List<String> command = benchmark.command(mode);
+            if (command == null) {
+                continue;
+            }
+            long[] ready = new long[runs];
+            long[] firstStatus = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                long[] sample = benchmark.launch(mode, run, command);
+                ready[run] = sample[0];
+                firstStatus[run] = sample[1];
+            }
+            Arrays.sort(ready);
+            Arrays.sort(firstStatus);
+            System.out.printf("%-8s %8d ms %8d ms %8d ms %11d ms%n",
+                    mode, median(ready), ready[0], ready[runs - 1], median(firstStatus));
+            result.putObject(mode)
+                    .put("readyMs", median(ready))
+                    .put("firstStatusMs", median(firstStatus));
+        }
+
+        Path out = Path.of(options.getOrDefault("out", "target/startup-result.json"));
+        mapper.writerWithDefaultPrettyPrinter().writeValue(out.toFile(), result);
+        System.out.println("Results written to " + out);
+
+        if (options.containsKey("baseline")) {
+            double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "15"));
+            if (!withinBaseline(result, mapper.readTree(Path.of(options.get("baseline")).toFile()), tolerance)) {
+                System.exit(1);
+            }
+        }
+    }
+
+    // JVM command line for a mode, or null if the mode's artifacts are not there
+    private List<String> command(String mode) {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        if ("jar".equals(mode)) {
+            if (!Files.isRegularFile(jar)) {
+                System.out.printf("%-8s skipped, %s not found (run ./mvnw package)%n", mode, jar);
+                return null;
+            }
+            return new ArrayList<>(List.of(java, "-jar", jar.toAbsolutePath().toString()));
+        }
+
+        Path extractedJar = extracted.resolve(jar.getFileName());
+        Path archive = extracted.resolve("application.jsa");
+        boolean aot = mode.startsWith("aot");
+        boolean cds = mode.endsWith("cds");
+        if (!aot && !cds) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        if (!Files.isRegularFile(extractedJar) || (cds && !Files.isRegularFile(archive)) || isStale(extractedJar)) {
+            System.out.printf("%-8s skipped, no current fast-startup build in %s (run ./mvnw -Pfast-startup package)%n",
+                    mode, extracted);
+            return null;
+        }
+        List<String> command = new ArrayList<>(List.of(java));
+        if (cds) {
+            command.add("-XX:SharedArchiveFile=" + archive.toAbsolutePath());
+        }
+        if (aot) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of("-jar", extractedJar.toAbsolutePath().toString()));
+        return command;
+    }
+
+    // An extraction older than the jar belongs to an earlier build
+    private boolean isStale(Path extractedJar) {
+        try {
+            return Files.isRegularFile(jar)
+                    && Files.getLastModifiedTime(extractedJar).compareTo(Files.getLastModifiedTime(jar)) < 0;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Start the application once and wait until it is ready.
+     *
+     * @return Milliseconds from launch to ready, and of the first /status request
+     */
+    long[] launch(String mode, int run, List<String> command) throws Exception {
+        int port = freePort();
+        Path journal = Files.createTempDirectory("startup-journal");
+        List<String> fullCommand = new ArrayList<>(command);
+        fullCommand.add("--server.port=" + port);
+        fullCommand.add("--firstclub.journal.directory=" + journal);
+        fullCommand.addAll(appArgs);
+
+        File log = Path.of("target", "startup-logs", mode + "-" + run + ".log").toFile();
+        log.getParentFile().mkdirs();
+        ProcessBuilder builder = new ProcessBuilder(fullCommand)
+                .redirectErrorStream(true)
+                .redirectOutput(log);
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            String base = "http://localhost:" + port;
+            long deadline = start + READY_TIMEOUT.toNanos();
+            while (status(base + "/actuator/health/readiness") != 200) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode + " exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(mode + " not ready after " + READY_TIMEOUT + ", see " + log);
+                }
+                Thread.sleep(5);
+            }
+            long ready = System.nanoTime();
+
+            // No user exists yet: the 404 still runs the whole controller, service and repository path
+            status(base + "/api/membership/status/1");
+            long firstStatus = System.nanoTime();
+            return new long[]{TimeUnit.NANOSECONDS.toMillis(ready - start), TimeUnit.NANOSECONDS.toMillis(firstStatus - ready)};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private int status(String url) throws IOException, InterruptedException {
+        try {
+            return client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (ConnectException e) {
+            return -1;
+        }
+    }
+
+    private static boolean withinBaseline(JsonNode result, JsonNode baseline, double tolerancePercent) {
+        Map<String, Long> regressions = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonNode> entry : result.properties()) {
+            JsonNode previous = baseline.get(entry.getKey());
+            if (previous == null) {
+                continue;
+            }
+            long now = entry.getValue().get("readyMs").asLong();
+            long before = previous.get("readyMs").asLong();
+            if (now > before * (1 + tolerancePercent / 100)) {
+                regressions.put(entry.getKey(), now - before);
+            }
+        }
+        regressions.forEach((mode, millis) -> System.out.printf("REGRESSION %s: ready %d ms slower than baseline%n", mode, millis));
+        return regressions.isEmpty();
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
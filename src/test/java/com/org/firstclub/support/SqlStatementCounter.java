@@ -0,0 +1,171 @@
+package com.org.firstclub.support;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the JDBC statements executed and result-set rows read through a DataSource, for
+ * asserting query budgets ("GET /plans runs at most 2 queries") in integration tests.
+ *
+ * Every execute/executeQuery/executeUpdate/executeBatch call is one statement, i.e. one round
+ * trip, whether it comes from Hibernate or JdbcTemplate. Counting is global rather than per
+ * thread, so work handed to another thread (streaming responses) is included; tests must not
+ * run background jobs that touch the database while measuring.
+ */
+public class SqlStatementCounter {
+
+    private final List<String> statements = new ArrayList<>(); // guarded by this
+    private final AtomicLong rows = new AtomicLong();
+    private volatile boolean recording;
+
+    /**
+     * Wrap a DataSource so that statements executed through it are counted while recording.
+     */
+    public DataSource wrap(DataSource target) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return proxy(Connection.class, super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return proxy(Connection.class, super.getConnection(username, password));
+            }
+        };
+    }
+
+    /**
+     * Run the action and report the statements it executed.
+     */
+    public Usage measure(ThrowingRunnable action) throws Exception {
+        synchronized (this) {
+            statements.clear();
+        }
+        rows.set(0);
+        recording = true;
+        try {
+            action.run();
+        } finally {
+            recording = false;
+        }
+        synchronized (this) {
+            return new Usage(List.copyOf(statements), rows.get());
+        }
+    }
+
+    private synchronized void recordStatement(String sql) {
+        if (recording) {
+            statements.add(sql);
+        }
+    }
+
+    private void recordRow() {
+        if (recording) {
+            rows.incrementAndGet();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new Handler(target, null));
+    }
+
+    // Wraps connections, statements and result sets; sql is the prepared SQL of a PreparedStatement
+    private final class Handler implements InvocationHandler {
+        private final Object target;
+        private final String sql;
+
+        Handler(Object target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            if (target instanceof Statement && name.startsWith("execute")) {
+                recordStatement(sql != null ? sql : args != null && args.length > 0 ? String.valueOf(args[0]) : name);
+            }
+
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (target instanceof ResultSet && "next".equals(name) && Boolean.TRUE.equals(result)) {
+                recordRow();
+            } else if (result instanceof PreparedStatement statement && name.startsWith("prepare")) {
+                return wrap(method.getReturnType(), statement, String.valueOf(args[0]));
+            } else if (result instanceof Statement statement && "createStatement".equals(name)) {
+                return wrap(Statement.class, statement, null);
+            } else if (result instanceof ResultSet resultSet && target instanceof Statement) {
+                return wrap(ResultSet.class, resultSet, null);
+            }
+            return result;
+        }
+
+        private Object wrap(Class<?> type, Object delegate, String sql) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new Handler(delegate, sql));
+        }
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    /**
+     * Statements executed (in order) and rows read during one measured action.
+     */
+    public record Usage(List<String> statements, long rows) {
+
+        public int statementCount() {
+            return statements.size();
+        }
+
+        public void assertStatementsAtMost(int budget) {
+            assertTrue(statements.size() <= budget, () -> "Expected at most " + budget + " SQL statements but "
+                    + statements.size() + " ran:\n  " + String.join("\n  ", statements));
+        }
+
+        /**
+         * Like {@link #assertStatementsAtMost(int)}, but id block fetches from the given sequence are
+         * budgeted separately: whether an insert needs one depends on inserts before it.
+         */
+        public void assertStatementsAtMost(int budget, String sequence, int sequenceFetches) {
+            String fetch = "select next value for " + sequence;
+            List<String> fetches = statements.stream().filter(sql -> sql.toLowerCase().contains(fetch)).toList();
+            assertTrue(statements.size() - fetches.size() <= budget && fetches.size() <= sequenceFetches,
+                    () -> "Expected at most " + budget + " SQL statements plus " + sequenceFetches + " fetches from "
+                            + sequence + " but " + statements.size() + " ran:\n  " + String.join("\n  ", statements));
+        }
+
+        public void assertRowsAtMost(long budget) {
+            assertTrue(rows <= budget, () -> "Expected at most " + budget + " rows fetched but read " + rows
+                    + " in:\n  " + String.join("\n  ", statements));
+        }
+    }
+}
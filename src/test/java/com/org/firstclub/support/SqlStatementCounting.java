@@ -0,0 +1,30 @@
+package com.org.firstclub.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Test configuration that routes the application DataSource through a {@link SqlStatementCounter}.
+ * Import it into a Spring Boot test and autowire the counter.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlStatementCounting {
+
+    @Bean
+    public static SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlStatementCountingPostProcessor(SqlStatementCounter counter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? counter.wrap(dataSource) : bean;
+            }
+        };
+    }
+}
@@ -11,6 +11,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class CommonUtilsTest {
 
+    private final CommonUtils commonUtils = new CommonUtils();
+
     private Tier silverTier;
     private Tier goldTier;
     private Tier platinumTier;
@@ -39,7 +41,7 @@ class CommonUtilsTest {
         user.setTotalOrders(0);
         user.setTotalSpent(BigDecimal.ZERO);
 
-        boolean result = CommonUtils.isEligible(user, silverTier);
+        boolean result = commonUtils.isEligible(user, silverTier);
 
         assertTrue(result);
     }
@@ -50,7 +52,7 @@ class CommonUtilsTest {
         user.setTotalOrders(10);
         user.setTotalSpent(BigDecimal.valueOf(100));
 
-        boolean result = CommonUtils.isEligible(user, goldTier);
+        boolean result = commonUtils.isEligible(user, goldTier);
 
         assertTrue(result);
     }
@@ -61,7 +63,7 @@ class CommonUtilsTest {
         user.setTotalOrders(2);
         user.setTotalSpent(BigDecimal.valueOf(600));
 
-        boolean result = CommonUtils.isEligible(user, goldTier);
+        boolean result = commonUtils.isEligible(user, goldTier);
 
         assertTrue(result);
     }
@@ -72,7 +74,7 @@ class CommonUtilsTest {
         user.setTotalOrders(3);
         user.setTotalSpent(BigDecimal.valueOf(300));
 
-        boolean result = CommonUtils.isEligible(user, goldTier);
+        boolean result = commonUtils.isEligible(user, goldTier);
 
         assertFalse(result);
     }
@@ -83,7 +85,7 @@ class CommonUtilsTest {
         user.setTotalOrders(25);
         user.setTotalSpent(BigDecimal.valueOf(1000));
 
-        boolean result = CommonUtils.isEligible(user, platinumTier);
+        boolean result = commonUtils.isEligible(user, platinumTier);
 
         assertTrue(result);
     }
@@ -94,7 +96,7 @@ class CommonUtilsTest {
         user.setTotalOrders(10);
         user.setTotalSpent(BigDecimal.valueOf(2500));
 
-        boolean result = CommonUtils.isEligible(user, platinumTier);
+        boolean result = commonUtils.isEligible(user, platinumTier);
 
         assertTrue(result);
     }
@@ -105,7 +107,7 @@ class CommonUtilsTest {
         user.setTotalOrders(15);
         user.setTotalSpent(BigDecimal.valueOf(1500));
 
-        boolean result = CommonUtils.isEligible(user, platinumTier);
+        boolean result = commonUtils.isEligible(user, platinumTier);
 
         assertFalse(result);
     }
@@ -116,7 +118,7 @@ class CommonUtilsTest {
         user.setTotalOrders(5);
         user.setTotalSpent(BigDecimal.ZERO);
 
-        boolean result = CommonUtils.isEligible(user, goldTier);
+        boolean result = commonUtils.isEligible(user, goldTier);
 
         assertTrue(result);
     }
@@ -127,7 +129,7 @@ class CommonUtilsTest {
         user.setTotalOrders(0);
         user.setTotalSpent(BigDecimal.valueOf(500));
 
-        boolean result = CommonUtils.isEligible(user, goldTier);
+        boolean result = commonUtils.isEligible(user, goldTier);
 
         assertTrue(result);
     }
@@ -0,0 +1,123 @@
+package com.org.firstclub.utils;
+
+import com.org.firstclub.repository.UserRepository;
+import com.org.firstclub.repository.entities.PlanPricing;
+import com.org.firstclub.repository.entities.Subscription;
+import com.org.firstclub.repository.entities.User;
+import com.org.firstclub.service.CatalogService;
+import com.org.firstclub.service.SubscriptionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:synthetic-data;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "firstclub.expiry-sweeper.enabled=false",
+        "firstclub.synthetic-data.enabled=true",
+        "firstclub.synthetic-data.users=2000",
+        "firstclub.synthetic-data.subscriptions=1200",
+        "firstclub.synthetic-data.batch-size=300",
+        "firstclub.synthetic-data.seed=7",
+        "firstclub.synthetic-data.as-of=2025-01-15"
+})
+class SyntheticDataGeneratorTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2025, 1, 15);
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Test
+    void startup_GeneratesConfiguredRows() {
+        // Rows from the startup run: users 1..2000
+        assertEquals(2000, count("select count(*) from app_user where id <= 2000"));
+        assertEquals(1200, count("select count(*) from subscription where user_id <= 2000"));
+
+        Map<String, Object> spread = jdbcTemplate.queryForMap("select"
+                + " sum(case when status = 'ACTIVE' then 1 else 0 end) as active,"
+                + " sum(case when status = 'EXPIRED' then 1 else 0 end) as expired,"
+                + " sum(case when status = 'CANCELLED' then 1 else 0 end) as cancelled,"
+                + " count(distinct current_tier_id) as tiers, count(distinct current_plan_id) as plans"
+                + " from subscription where user_id <= 2000");
+        assertTrue(((Number) spread.get("ACTIVE")).intValue() > 800);
+        assertTrue(((Number) spread.get("EXPIRED")).intValue() > 100);
+        assertTrue(((Number) spread.get("CANCELLED")).intValue() > 50);
+        assertEquals(3, ((Number) spread.get("TIERS")).intValue());
+        assertEquals(3, ((Number) spread.get("PLANS")).intValue());
+
+        // Every subscription is on a tier its user qualifies for
+        assertEquals(0, count("select count(*) from subscription s join app_user u on u.id = s.user_id"
+                + " join tier t on t.id = s.current_tier_id"
+                + " where s.user_id <= 2000 and u.total_orders < t.min_orders and u.total_spent < t.min_order_value"));
+        // Expiry matches the plan, and expired rows are in the past
+        assertEquals(0, count("select count(*) from subscription s join plan_duration d on d.id = s.current_plan_id"
+                + " where s.user_id <= 2000 and datediff(day, s.start_date, s.expiry_date) <> d.duration_in_days"));
+        assertEquals(0, count("select count(*) from subscription where user_id <= 2000"
+                + " and status = 'EXPIRED' and expiry_date >= date '2025-01-15'"));
+    }
+
+    @Test
+    void generate_SameSeed_SameRows() {
+        long first = generator.generate(500, 300, 11, AS_OF);
+        long second = generator.generate(500, 300, 11, AS_OF);
+
+        assertEquals(rows(first), rows(second));
+        assertNotEquals(rows(first), rows(generator.generate(500, 300, 12, AS_OF)));
+    }
+
+    @Test
+    void generate_MoreSubscriptionsThanUsers_Fails() {
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(10, 11, 1, AS_OF));
+    }
+
+    @Test
+    void jpaInserts_ContinueAfterGeneratedIds() {
+        User user = new User();
+        user.setName("After Synthetic");
+        user.setEmail("after-synthetic@firstclub.test");
+        user.setTotalOrders(0);
+        user.setTotalSpent(BigDecimal.ZERO);
+        User saved = userRepository.save(user);
+        PlanPricing silverMonthly = catalogService.getSnapshot().getPricings().stream()
+                .filter(pricing -> "Silver".equals(pricing.getTier().getName()))
+                .findFirst().orElseThrow();
+
+        Subscription subscription = subscriptionService.subscribe(saved.getId(), silverMonthly.getId());
+
+        assertTrue(saved.getId() > 2000);
+        assertNotNull(subscription.getId());
+    }
+
+    // User and subscription values of one generate call, keyed by position instead of id
+    private List<Map<String, Object>> rows(long firstUserId) {
+        return jdbcTemplate.queryForList("select u.id - ? as position, u.total_orders, u.total_spent,"
+                + " s.current_tier_id, s.current_plan_id, s.start_date, s.expiry_date, s.status"
+                + " from app_user u left join subscription s on s.user_id = u.id"
+                + " where u.id between ? and ? order by u.id", firstUserId, firstUserId, firstUserId + 499);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}